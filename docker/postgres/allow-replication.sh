@@ -0,0 +1,3 @@
+#!/bin/sh
+# Lets the postgres-replica service stream from this primary. Runs once, when the data volume is created.
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,72 @@
+// k6 load test comparing platform-thread and virtual-thread request handling.
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e VUS=400 load-test/auth-load-test.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '400');
+const DURATION = __ENV.DURATION || '2m';
+const PASSWORD = 'pAssword1!_';
+const HEADERS = { 'Content-Type': 'application/json' };
+
+const rejected = new Counter('rejected_429');
+
+export const options = {
+    scenarios: {
+        // cheap authenticated reads; their latency must stay flat while logins saturate the CPU
+        profile: {
+            executor: 'constant-vus',
+            exec: 'profile',
+            vus: VUS,
+            duration: DURATION,
+        },
+        // BCrypt-bound logins arriving at a fixed rate
+        login: {
+            executor: 'constant-arrival-rate',
+            exec: 'login',
+            rate: parseInt(__ENV.LOGIN_RATE || '50'),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 100,
+            maxVUs: 500,
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:profile}': ['p(95)<200'],
+        'http_req_failed{scenario:profile}': ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const email = `load-${Date.now()}@mail.com`;
+    const phone = `+1${Date.now() % 10000000000}`;
+    http.post(`${BASE_URL}/api/v1/auth/register`, JSON.stringify({
+        firstName: 'Load',
+        lastName: 'Test',
+        email: email,
+        phoneNumber: phone,
+        password: PASSWORD,
+        confirmPassword: PASSWORD,
+    }), { headers: HEADERS });
+
+    const response = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ email: email, password: PASSWORD }), { headers: HEADERS });
+    return { email: email, accessToken: response.json('access_token') };
+}
+
+export function profile(data) {
+    const response = http.get(`${BASE_URL}/api/v1/users/profile`, {
+        headers: { Authorization: `Bearer ${data.accessToken}` },
+    });
+    check(response, { 'profile 200': r => r.status === 200 });
+}
+
+export function login(data) {
+    const response = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ email: data.email, password: PASSWORD }), { headers: HEADERS });
+    if (response.status === 429) {
+        rejected.add(1);
+    }
+    check(response, { 'login 200 or 429': r => r.status === 200 || r.status === 429 });
+}
@@ -0,0 +1,49 @@
+package com.mxnuchim.auth.benchmarks;
+
+import com.mxnuchim.auth.domain.entities.Role;
+import com.mxnuchim.auth.domain.entities.User;
+import com.mxnuchim.auth.security.JwtKeyRing;
+import com.mxnuchim.auth.security.JwtService;
+import com.mxnuchim.auth.security.SigningAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static JwtService jwtService(final SigningAlgorithm algorithm) {
+        final String keyDirectory = switch (algorithm) {
+            case RS256 -> "keys/local-only";
+            case ES256 -> "keys/local-only/es256";
+            case ED25519 -> "keys/local-only/ed25519";
+        };
+        final JwtKeyRing keyRing = new JwtKeyRing(
+                algorithm,
+                "",
+                keyDirectory + "/private_key.pem",
+                keyDirectory + "/public_key.pem",
+                List.of(),
+                false,
+                false,
+                TimeUnit.DAYS.toMillis(7)
+        );
+        return new JwtService(keyRing, new SimpleMeterRegistry(), TimeUnit.MINUTES.toMillis(15), TimeUnit.DAYS.toMillis(7));
+    }
+
+    static User user() {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .firstName("Manuchim")
+                .lastName("Oliver")
+                .email("oliver@mail.com")
+                .phoneNumber("+23412345678")
+                .password("{noop}pAssword1!_")
+                .enabled(true)
+                .roles(List.of(Role.builder().name("ROLE_USER").build()))
+                .build();
+    }
+}
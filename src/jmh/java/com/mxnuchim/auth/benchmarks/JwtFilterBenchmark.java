@@ -0,0 +1,98 @@
+package com.mxnuchim.auth.benchmarks;
+
+import com.mxnuchim.auth.domain.entities.User;
+import com.mxnuchim.auth.repositories.RevokedTokenRepository;
+import com.mxnuchim.auth.repositories.UserRepository;
+import com.mxnuchim.auth.security.AccessTokenDenylist;
+import com.mxnuchim.auth.security.JwtFilter;
+import com.mxnuchim.auth.security.JwtService;
+import com.mxnuchim.auth.security.SigningAlgorithm;
+import com.mxnuchim.auth.security.TokenVersionRegistry;
+import com.mxnuchim.auth.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Full {@link JwtFilter#doFilter} execution for an authenticated request with a no-op chain.
+ * The user details service is an in-memory stub, so the database-backed variant measures
+ * everything except the actual query. The denylist holds revocations of other tokens, so the
+ * measured token always takes the Bloom filter's negative path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"true", "false"})
+    private boolean statelessPrincipal;
+
+    @Param({"true", "false"})
+    private boolean tokenCache;
+
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        final JwtService jwtService = Fixtures.jwtService(SigningAlgorithm.RS256);
+        final User user = Fixtures.user();
+        final UserDetailsService userDetailsService = username -> user;
+        final VerifiedTokenCache verifiedTokenCache =
+                new VerifiedTokenCache(jwtService, this.tokenCache, 10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+        final AccessTokenDenylist accessTokenDenylist = new AccessTokenDenylist(
+                mock(RevokedTokenRepository.class), mock(TransactionTemplate.class), 86_400_000L, 100_000, 0.001);
+        for (int i = 0; i < 1_000; i++) {
+            accessTokenDenylist.revokeToken(UUID.randomUUID().toString(), Instant.now().plus(Duration.ofDays(1)));
+        }
+        final UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionById(any())).thenReturn(Optional.of(user.getTokenVersion()));
+        final TokenVersionRegistry tokenVersionRegistry =
+                new TokenVersionRegistry(userRepository, 100_000, Duration.ofMinutes(30));
+
+        this.jwtFilter = new JwtFilter(jwtService, verifiedTokenCache, accessTokenDenylist, tokenVersionRegistry, userDetailsService,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(this.jwtFilter, "statelessPrincipal", this.statelessPrincipal);
+
+        this.request = new MockHttpServletRequest("GET", "/api/v1/users/profile");
+        this.request.setServletPath("/api/v1/users/profile");
+        this.request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateAccessToken(user));
+        this.response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        this.jwtFilter.doFilter(this.request, this.response, NO_OP_CHAIN);
+        final Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mxnuchim.auth.benchmarks;
+
+import com.mxnuchim.auth.security.JwtPrincipal;
+import com.mxnuchim.auth.security.JwtService;
+import com.mxnuchim.auth.security.SigningAlgorithm;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput of each supported JWT algorithm, using the local-only key pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "ED25519"})
+    private SigningAlgorithm algorithm;
+
+    private JwtService jwtService;
+    private JwtPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        this.jwtService = Fixtures.jwtService(this.algorithm);
+        this.principal = new JwtPrincipal(
+                UUID.randomUUID(),
+                "oliver@mail.com",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                0
+        );
+        this.token = this.jwtService.generateAccessToken(this.principal);
+    }
+
+    @Benchmark
+    public String sign() {
+        return this.jwtService.generateAccessToken(this.principal);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return this.jwtService.verifyToken(this.token);
+    }
+}
@@ -0,0 +1,69 @@
+package com.mxnuchim.auth.benchmarks;
+
+import com.mxnuchim.auth.security.JwtPrincipal;
+import com.mxnuchim.auth.security.JwtService;
+import com.mxnuchim.auth.security.SigningAlgorithm;
+import com.mxnuchim.auth.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verify paths of {@link JwtService} with the default RS256 configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenBenchmark {
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtPrincipal principal;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        this.jwtService = Fixtures.jwtService(SigningAlgorithm.RS256);
+        this.verifiedTokenCache = new VerifiedTokenCache(this.jwtService, true, 10_000, Duration.ofMinutes(5),
+                new SimpleMeterRegistry());
+        this.principal = new JwtPrincipal(
+                UUID.randomUUID(),
+                "oliver@mail.com",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                0
+        );
+        this.accessToken = this.jwtService.generateAccessToken(this.principal);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return this.jwtService.generateAccessToken(this.principal);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return this.jwtService.generateRefreshToken(this.principal, UUID.randomUUID());
+    }
+
+    @Benchmark
+    public Claims verifyToken() {
+        return this.jwtService.verifyToken(this.accessToken);
+    }
+
+    @Benchmark
+    public Claims verifyTokenCached() {
+        return this.verifiedTokenCache.verify(this.accessToken);
+    }
+}
@@ -1,32 +1,19 @@
 package com.mxnuchim.auth;
 
-import com.mxnuchim.auth.domain.entities.Role;
-import com.mxnuchim.auth.repositories.RoleRepository;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-
-import java.util.Optional;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class Application {
 
+	// enough for every startup step of this app; later steps are dropped rather than growing the buffer
+	private static final int STARTUP_STEP_CAPACITY = 10_000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(Application.class, args);
+		final SpringApplication application = new SpringApplication(Application.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 
-    @Bean
-    public CommandLineRunner commandLineRunner(final RoleRepository roleRepository){
-        return args -> {
-            final Optional<Role> userRole = roleRepository.findByName("ROLE_USER");
-            if(userRole.isEmpty()){
-                final Role role = new Role();
-                role.setName("ROLE_USER");
-                role.setCreatedBy("APP");
-                roleRepository.save(role);
-            }
-        };
-    }
-
 }
@@ -0,0 +1,58 @@
+package com.mxnuchim.auth.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Fails startup when the application runs on Spring AOT code generated with different flags. Bean conditions
+ * such as the replica routing in {@link DataSourceConfig} or the virtual-thread executors are evaluated once
+ * by process-aot, so changing {@code DB_REPLICA_ENABLED} or {@code VIRTUAL_THREADS_ENABLED} afterwards would
+ * silently keep the beans of the build. The {@code startup} Maven profile records the build values.
+ */
+@Component
+@Slf4j
+public class AotBuildSettingsCheck implements InitializingBean {
+
+    static final String BUILD_SETTINGS = "META-INF/aot-build.properties";
+
+    private final Environment environment;
+
+    public AotBuildSettingsCheck(final Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        final ClassPathResource resource = new ClassPathResource(BUILD_SETTINGS);
+        if (!AotDetector.useGeneratedArtifacts() || !resource.exists()) {
+            return;
+        }
+
+        final Properties build = PropertiesLoaderUtils.loadProperties(resource);
+        final List<String> mismatches = new ArrayList<>();
+        for (final String name : build.stringPropertyNames()) {
+            final boolean built = Boolean.parseBoolean(build.getProperty(name));
+            final boolean running = this.environment.getProperty(name, Boolean.class, false);
+            if (built != running) {
+                mismatches.add(name + " (built with " + built + ", running with " + running + ")");
+            }
+        }
+
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("The AOT build does not match the runtime settings: "
+                    + String.join(", ", mismatches) + ". Rebuild with mvn -Pstartup package and the matching "
+                    + "-Dstartup.* flags, or restore the settings the build used.");
+        }
+        log.debug("AOT build settings match the runtime: {}", build);
+    }
+}
@@ -1,6 +1,6 @@
 package com.mxnuchim.auth.config;
 
-import com.mxnuchim.auth.domain.entities.User;
+import com.mxnuchim.auth.security.UserPrincipal;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -21,7 +21,9 @@ public class ApplicationAuditorWare implements AuditorAware<UUID> {
             return Optional.empty();
         }
 
-        final User user = (User) authentication.getPrincipal();
+        if (!(authentication.getPrincipal() instanceof UserPrincipal user)) {
+            return Optional.empty();
+        }
         return Optional.ofNullable(user.getId());
     }
 }
@@ -1,21 +1,61 @@
 package com.mxnuchim.auth.config;
 
+import com.mxnuchim.auth.security.BoundedPasswordEncoder;
+import com.mxnuchim.auth.security.PasswordHashCalibrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.UUID;
 
 @Configuration
 public class BeansConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return  new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password-hashing.pool-size:0}")
+            final int poolSize,
+            @Value("${app.security.password-hashing.queue-capacity:64}")
+            final int queueCapacity,
+            @Value("${app.security.password-hashing.algorithm:bcrypt}")
+            final String algorithm,
+            @Value("${app.security.password-hashing.calibrate:true}")
+            final boolean calibrate,
+            @Value("${app.security.password-hashing.target-latency:250ms}")
+            final Duration targetLatency,
+            @Value("${app.security.password-hashing.bcrypt-strength:10}")
+            final int bcryptStrength,
+            @Value("${app.security.password-hashing.argon2-memory-kib:19456}")
+            final int argon2MemoryKib,
+            @Value("${app.security.password-hashing.argon2-iterations:2}")
+            final int argon2Iterations,
+            final MeterRegistry meterRegistry){
+        final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(calibrate && "bcrypt".equals(algorithm)
+                ? PasswordHashCalibrator.calibrateBCryptStrength(targetLatency)
+                : bcryptStrength);
+        final PasswordEncoder argon2 = PasswordHashCalibrator.argon2(argon2MemoryKib, calibrate && "argon2".equals(algorithm)
+                ? PasswordHashCalibrator.calibrateArgon2Iterations(targetLatency, argon2MemoryKib)
+                : argon2Iterations);
+
+        // New hashes are stored as {id}hash; hashes without a prefix predate this encoder and are BCrypt.
+        // upgradeEncoding() reports those, and hashes weaker than the current target, so
+        // DaoAuthenticationProvider re-hashes them through UserDetailsPasswordService on the next login.
+        final DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(
+                algorithm,
+                Map.of("bcrypt", bcrypt, "argon2", argon2)
+        );
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, meterRegistry);
     };
 
     @Bean
@@ -0,0 +1,54 @@
+package com.mxnuchim.auth.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes {@code @Transactional(readOnly = true)} work to a read replica and everything else to the primary.
+ * Without {@code app.datasource.replica.enabled} Spring Boot's single auto-configured pool is used instead.
+ * <p>
+ * The routing happens when the first statement needs a connection, after the transaction manager has marked
+ * it read-only, so a transaction never holds a physical connection before it issues SQL. Spring Data
+ * repository reads outside a transaction are read-only too; anything that must see its own writes runs in a
+ * read-write transaction.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource")
+            final DataSource primaryDataSource,
+            @Qualifier("replicaDataSource")
+            final DataSource replicaDataSource
+    ) {
+        final LazyConnectionDataSourceProxy routingDataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routingDataSource.setReadOnlyDataSource(replicaDataSource);
+        return routingDataSource;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mxnuchim.auth.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.mxnuchim.auth.domain.entities.Role;
+import com.mxnuchim.auth.domain.entities.User;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caffeine-backed regions for the Hibernate second-level and query caches.
+ * <p>
+ * Changes made through JPA update or invalidate the local regions, and the query cache is invalidated
+ * whenever the {@code roles} table is written. The cache is per instance, so changes made on another
+ * instance or directly in the database show up once an entry expires after {@code ttl}.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.hibernate-cache.max-size:10000}")
+            final long maxSize,
+            @Value("${app.hibernate-cache.ttl:PT10M}")
+            final Duration ttl
+    ) {
+        // one manager per application context; test contexts can live side by side in one JVM
+        final CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), HibernateCacheConfig.class.getClassLoader());
+
+        cacheManager.createCache(Role.CACHE_REGION, bounded(maxSize, ttl));
+        cacheManager.createCache(User.ROLES_CACHE_REGION, bounded(maxSize, ttl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded(maxSize, ttl));
+        // one entry per table; query results are only trusted while their table timestamps are present
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<Object, Object>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(final CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(final long maxSize, final Duration ttl) {
+        final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mxnuchim.auth.config;
+
+import com.mxnuchim.auth.security.JwtKeyRing;
+import com.mxnuchim.auth.services.UserImportService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Beans created during startup even when lazy initialization is on: a bad key fails the
+     * deployment instead of the first request, and hash calibration never lands on a login.
+     * {@link AotBuildSettingsCheck} must run before the app takes traffic, and the import service deletes
+     * uploads a previous run left in its spool directory.
+     * {@code @Scheduled} beans are already kept eager by Spring Boot.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerSecurityBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                JwtKeyRing.class, PasswordEncoder.class, AotBuildSettingsCheck.class, UserImportService.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mxnuchim.auth.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Logs the slowest bean instantiations once the application is ready. A bean's time includes
+ * the beans it pulled in, so read the list top-down. The full timeline stays available at
+ * {@code /actuator/startup} on the management port.
+ */
+@Component
+@Slf4j
+public class StartupTimelineReporter {
+
+    private static final String BEAN_INSTANTIATION_STEP = "spring.beans.instantiate";
+    private static final String BEAN_NAME_TAG = "beanName";
+
+    private final boolean enabled;
+    private final int topSteps;
+
+    public StartupTimelineReporter(
+            @Value("${app.startup.report.enabled:true}")
+            final boolean enabled,
+            @Value("${app.startup.report.top-steps:15}")
+            final int topSteps
+    ) {
+        this.enabled = enabled;
+        this.topSteps = topSteps;
+    }
+
+    @EventListener
+    public void report(final ApplicationReadyEvent event) {
+        if (!this.enabled
+                || !(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+
+        // a snapshot, so the actuator endpoint still sees the buffered steps
+        final StartupTimeline timeline = startup.getBufferedTimeline();
+        log.info("Application ready in {} ms; slowest bean instantiations:", event.getTimeTaken().toMillis());
+        timeline.getEvents().stream()
+                .filter(step -> BEAN_INSTANTIATION_STEP.equals(step.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(this.topSteps)
+                .forEach(step -> log.info("  {} ms  {}", step.getDuration().toMillis(), beanName(step.getStartupStep())));
+    }
+
+    private static String beanName(final StartupStep step) {
+        for (final StartupStep.Tag tag : step.getTags()) {
+            if (BEAN_NAME_TAG.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "<unnamed>";
+    }
+}
@@ -0,0 +1,106 @@
+package com.mxnuchim.auth.controllers;
+
+import com.mxnuchim.auth.dto.response.UserImportJobResponse;
+import com.mxnuchim.auth.services.UserExportService;
+import com.mxnuchim.auth.services.UserImportService;
+import com.mxnuchim.auth.services.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin", description = "Administrative User Management Endpoints")
+public class AdminController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+
+    @PostMapping("/{user-id}/logout-everywhere")
+    @Operation(
+            summary = "Log a user out everywhere",
+            description = "Invalidate every access and refresh token issued to the user. The user has to log in again on all devices."
+    )
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logoutEverywhere(
+            @PathVariable("user-id")
+            final UUID userId
+    ){
+        this.userService.logoutEverywhere(userId);
+    }
+
+    @PostMapping(path = "/import", consumes = TEXT_CSV)
+    @Operation(
+            summary = "Import users from CSV",
+            description = "Upload a header row naming the registration fields (confirmPassword optional), then one user per line. The import runs in the background: poll the returned Location for progress and the report of invalid or taken rows."
+    )
+    public ResponseEntity<UserImportJobResponse> importUsersFromCsv(final InputStream body) {
+        return accepted(this.userImportService.submit(body, UserImportService.Format.CSV));
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Import users from NDJSON",
+            description = "Upload one registration JSON object per line (confirmPassword optional). The import runs in the background: poll the returned Location for progress and the report of invalid or taken rows."
+    )
+    public ResponseEntity<UserImportJobResponse> importUsersFromNdjson(final InputStream body) {
+        return accepted(this.userImportService.submit(body, UserImportService.Format.NDJSON));
+    }
+
+    @GetMapping("/import/{job-id}")
+    @Operation(
+            summary = "Get an import job",
+            description = "Status and counts of a background import, with the rejected rows. Served by the instance that accepted the upload."
+    )
+    public UserImportJobResponse getImportJob(
+            @PathVariable("job-id")
+            final UUID jobId
+    ){
+        return this.userImportService.getJob(jobId);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export all users",
+            description = "Stream every user, without passwords, as NDJSON (default) or CSV, in id order."
+    )
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(name = "format", defaultValue = "NDJSON")
+            final UserExportService.Format format
+    ){
+        final boolean csv = format == UserExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType(TEXT_CSV) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "users.csv" : "users.ndjson")
+                        .build()
+                        .toString())
+                .body(output -> this.userExportService.exportUsers(output, format));
+    }
+
+    private static ResponseEntity<UserImportJobResponse> accepted(final UserImportJobResponse job) {
+        final URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{job-id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+}
@@ -6,12 +6,15 @@ import com.mxnuchim.auth.dto.request.RegistrationRequest;
 import com.mxnuchim.auth.dto.response.AuthenticationResponse;
 import com.mxnuchim.auth.services.AuthenticationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,9 +30,11 @@ public class AuthenticationController {
     public ResponseEntity<AuthenticationResponse> login (
             @Valid
             @RequestBody
-            final LoginRequest request
+            final LoginRequest request,
+            final HttpServletRequest servletRequest
             ){
-        return ResponseEntity.ok(this.authenticationService.login(request));
+        // behind a proxy, enable server.forward-headers-strategy so this is the client address
+        return ResponseEntity.ok(this.authenticationService.login(request, servletRequest.getRemoteAddr()));
     };
 
     @PostMapping("/register")
@@ -51,4 +56,20 @@ public class AuthenticationController {
             ){
             return ResponseEntity.ok(this.authenticationService.refreshToken(request));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestBody
+            final RefreshRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+            final String authorization
+    ){
+        final String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        this.authenticationService.logout(request, accessToken);
+
+        return ResponseEntity.noContent()
+                .build();
+    }
 }
@@ -0,0 +1,38 @@
+package com.mxnuchim.auth.controllers;
+
+import com.mxnuchim.auth.security.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Public keys for verifying issued tokens")
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+    @Value("${app.security.jwt.jwks-max-age:PT15M}")
+    private Duration maxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(
+            summary = "JSON Web Key Set",
+            description = "Every public key currently accepted for token verification, indexed by kid. Responses carry an ETag and Cache-Control so verifiers can cache them."
+    )
+    public ResponseEntity<Map<String, Object>> jwks() {
+        final JwtKeyRing.JwkSet jwkSet = this.keyRing.getJwkSet();
+        // the ETag lets clients revalidate with If-None-Match and get a 304 until the next rotation
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(this.maxAge).cachePublic())
+                .eTag(jwkSet.etag())
+                .body(jwkSet.document());
+    }
+}
@@ -2,7 +2,8 @@ package com.mxnuchim.auth.controllers;
 
 import com.mxnuchim.auth.dto.ChangePasswordDto;
 import com.mxnuchim.auth.dto.ProfileUpdateDto;
-import com.mxnuchim.auth.domain.entities.User;
+import com.mxnuchim.auth.dto.response.UserProfileResponse;
+import com.mxnuchim.auth.security.UserPrincipal;
 import com.mxnuchim.auth.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,9 +29,8 @@ public class UserController {
             summary = "Get user profile",
             description = "Retrieve the authenticated user's profile information including first name, last name, email, phone number, and profile picture."
     )
-    public User getProfile(final Authentication principal) {
-        // Cast principal to existing User entity
-        return (User) principal.getPrincipal();
+    public UserProfileResponse getProfile(final Authentication principal) {
+        return this.userService.getProfile(getUserId(principal));
     }
 
     @PatchMapping("/profile")
@@ -95,7 +95,7 @@ public class UserController {
     }
 
     private UUID getUserId(final Authentication principal) {
-       return ((User) principal.getPrincipal()).getId();
+       return ((UserPrincipal) principal.getPrincipal()).getId();
     };
 
 }
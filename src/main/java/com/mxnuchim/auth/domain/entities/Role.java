@@ -1,14 +1,13 @@
 package com.mxnuchim.auth.domain.entities;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.mxnuchim.auth.domain.entities.common.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
-import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-
-import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
@@ -17,11 +16,11 @@ import java.util.List;
 @AllArgsConstructor
 @SuperBuilder
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Role.CACHE_REGION)
 public class Role extends BaseEntity {
 
-    private String name;
+    public static final String CACHE_REGION = "roles";
 
-    @ManyToMany(mappedBy = "roles")
-    @JsonBackReference
-    private List<User> users;
+    private String name;
 }
@@ -1,7 +1,12 @@
 package com.mxnuchim.auth.domain.entities;
 
+import com.mxnuchim.auth.security.UserPrincipal;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UuidGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -24,15 +29,26 @@ import java.util.UUID;
 @Builder
 @Table(
         name = "users",
+        // email uniqueness is case-insensitive: EMAIL_CONSTRAINT is a unique index on lower(email),
+        // which JPA cannot declare; see db/migration
+        uniqueConstraints = {
+                @UniqueConstraint(name = User.PHONE_NUMBER_CONSTRAINT, columnNames = "phone_number")
+        },
         indexes = {
-                @Index(name = "idx_users_email", columnList = "email"),
-                @Index(name = "idx_users_phone", columnList = "phone_number")
+                @Index(name = "idx_users_phone", columnList = "phone_number"),
+                @Index(name = "idx_users_last_modified_date", columnList = "last_modified_date")
         }
 )
 @EntityListeners(AuditingEntityListener.class)
-public class User implements UserDetails {
+public class User implements UserDetails, UserPrincipal {
+
+    public static final String EMAIL_CONSTRAINT = "uk_users_email_lower";
+    public static final String PHONE_NUMBER_CONSTRAINT = "uk_users_phone_number";
+    public static final String ROLES_CACHE_REGION = "user-roles";
+
+    // time-ordered (version 7) UUIDs, generated without a round trip, so inserts batch and append to the primary key index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @Column(name = "first_name", nullable = false)
@@ -41,10 +57,10 @@ public class User implements UserDetails {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
-    @Column(name = "email", unique = true, nullable = false)
+    @Column(name = "email", nullable = false)
     private String email;
 
-    @Column(name = "phone_number", unique = true, nullable = false)
+    @Column(name = "phone_number", nullable = false)
     private String phoneNumber;
 
     @Column(name = "password", nullable = false)
@@ -59,6 +75,10 @@ public class User implements UserDetails {
     @Column(name = "is_account_locked")
     private boolean accountLocked;
 
+    // null keeps a lock until it is lifted manually; otherwise the lock lapses at this time
+    @Column(name = "lock_expires_at")
+    private LocalDateTime lockExpiresAt;
+
     @Column(name = "is_credential_expired")
     private boolean credentialsExpired;
 
@@ -71,6 +91,12 @@ public class User implements UserDetails {
     @Column(name = "is_phone_verified")
     private boolean phoneVerified;
 
+    // stamped into issued tokens; bumping it invalidates every token issued before
+    @Column(name = "token_version", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int tokenVersion = 0;
+
     @CreatedDate
     @Column(name = "created_date", updatable = false, nullable = false)
     private LocalDateTime createdDate;
@@ -79,10 +105,9 @@ public class User implements UserDetails {
     @Column(name = "last_modified_date", insertable = false)
     private LocalDateTime lastModifiedDate;
 
-    @ManyToMany(
-            cascade = {CascadeType.PERSIST, CascadeType.MERGE},
-            fetch = FetchType.EAGER
-    )
+    // roles are reference data and never cascaded; authentication reads them through AuthUser instead
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.ROLES_CACHE_REGION)
     @JoinTable(
             name = "user_roles",
             joinColumns = {
@@ -126,7 +151,8 @@ public class User implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return !this.accountLocked;
+        return !this.accountLocked
+                || (this.lockExpiresAt != null && this.lockExpiresAt.isBefore(LocalDateTime.now()));
     }
 
     @Override
@@ -138,5 +164,9 @@ public class User implements UserDetails {
         return this.firstName + " " + this.lastName;
     }
 
+    public void bumpTokenVersion() {
+        this.tokenVersion++;
+    }
+
 
 }
@@ -0,0 +1,23 @@
+package com.mxnuchim.auth.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One exported user, read by a JPQL constructor expression so no entity is managed or dirty-checked.
+ */
+public record UserExportRow(
+        UUID id,
+        String firstName,
+        String lastName,
+        String email,
+        String phoneNumber,
+        LocalDate dateOfBirth,
+        boolean enabled,
+        boolean accountLocked,
+        boolean emailVerified,
+        boolean phoneVerified,
+        LocalDateTime createdDate
+) {
+}
@@ -0,0 +1,34 @@
+package com.mxnuchim.auth.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserImportJobResponse {
+
+    private UUID id;
+    private Status status;
+    private String format;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    // why the whole job failed, e.g. INVALID_IMPORT_FILE; rejected rows are listed in the report instead
+    private String errorCode;
+    // the counts so far while the job runs, the final report once it is done
+    private UserImportReport report;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,34 @@
+package com.mxnuchim.auth.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserImportReport {
+
+    private long received;
+    private long imported;
+    private long failed;
+    // only the first app.user-import.max-reported-errors failures are listed; failed counts them all
+    private boolean errorsTruncated;
+    private List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class RowError {
+        // 1-based line in the uploaded file; the CSV header is line 1
+        private long line;
+        private String email;
+        private String code;
+        private List<String> messages;
+    }
+}
@@ -0,0 +1,32 @@
+package com.mxnuchim.auth.exceptions;
+
+import com.mxnuchim.auth.domain.entities.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+public final class DataIntegrityViolations {
+
+    private DataIntegrityViolations() {
+    }
+
+    /**
+     * Maps a violated unique constraint on users to the error a client can act on, e.g. for a registration
+     * or an imported row racing with another insert. Any other violation is returned unchanged.
+     */
+    public static RuntimeException toBusinessException(final DataIntegrityViolationException e) {
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof ConstraintViolationException)) {
+            cause = cause.getCause();
+        }
+        final String constraint = cause != null ? ((ConstraintViolationException) cause).getConstraintName() : null;
+        if (constraint != null && constraint.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT)) {
+            return new BusinessException(ErrorCode.EMAIL_ALREADY_EXISTS);
+        }
+        if (constraint != null && constraint.toLowerCase(Locale.ROOT).contains(User.PHONE_NUMBER_CONSTRAINT)) {
+            return new BusinessException(ErrorCode.PHONE_ALREADY_EXISTS);
+        }
+        return e;
+    }
+}
@@ -19,6 +19,16 @@ public enum ErrorCode {
     ERR_USER_DISABLED("ERR_USER_DISABLED", "This account is disabled. Please contact support", HttpStatus.UNAUTHORIZED),
     BAD_CREDENTIALS("BAD_CREDENTIALS", "Username or password is incorrect", HttpStatus.UNAUTHORIZED),
     USERNAME_NOT_FOUND("USERNAME_NOT_FOUND", "User not found", HttpStatus.NOT_FOUND),
+    INVALID_REFRESH_TOKEN("INVALID_REFRESH_TOKEN", "Refresh token is invalid, expired or revoked", HttpStatus.UNAUTHORIZED),
+    REFRESH_TOKEN_REUSED("REFRESH_TOKEN_REUSED", "Refresh token was already used. All sessions from this login have been revoked", HttpStatus.UNAUTHORIZED),
+    TOO_MANY_LOGIN_ATTEMPTS("TOO_MANY_LOGIN_ATTEMPTS", "Too many failed login attempts, please try again later", HttpStatus.TOO_MANY_REQUESTS),
+    ERR_ACCOUNT_LOCKED("ERR_ACCOUNT_LOCKED", "This account is temporarily locked after repeated failed logins", HttpStatus.UNAUTHORIZED),
+    TOO_MANY_REQUESTS("TOO_MANY_REQUESTS", "Too many requests, please slow down", HttpStatus.TOO_MANY_REQUESTS),
+    INVALID_IMPORT_FILE("INVALID_IMPORT_FILE", "The CSV header must name the firstName, lastName, email, phoneNumber and password columns", HttpStatus.BAD_REQUEST),
+    IMPORT_QUEUE_FULL("IMPORT_QUEUE_FULL", "Too many imports are queued on this instance, please retry once one has finished", HttpStatus.TOO_MANY_REQUESTS),
+    IMPORT_JOB_NOT_FOUND("IMPORT_JOB_NOT_FOUND", "No import job with this id on this instance, or it has expired", HttpStatus.NOT_FOUND),
+    INVALID_IMPORT_ROW("INVALID_IMPORT_ROW", "The row could not be read or failed validation", HttpStatus.BAD_REQUEST),
+    PASSWORD_HASHING_BUSY("PASSWORD_HASHING_BUSY", "Too many authentication requests, please retry shortly", HttpStatus.TOO_MANY_REQUESTS),
     INTERNAL_EXCEPTION("INTERNAL_EXCEPTION", "", HttpStatus.INTERNAL_SERVER_ERROR);
 
      private final String code;
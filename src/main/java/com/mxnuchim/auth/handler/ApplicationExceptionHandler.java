@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -51,6 +52,17 @@ public class ApplicationExceptionHandler {
                 .body(body);
     }
 
+    @ExceptionHandler(LockedException.class)
+    public ResponseEntity<ErrorResponse> handleException(final LockedException exception) {
+        log.debug(exception.getMessage(), exception);
+        final ErrorResponse body = ErrorResponse.builder()
+                .code(ErrorCode.ERR_ACCOUNT_LOCKED.getCode())
+                .message(ErrorCode.ERR_ACCOUNT_LOCKED.getDefaultMessage())
+                .build();
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(body);
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleException(final BadCredentialsException exception) {
         log.debug(exception.getMessage(), exception);
@@ -1,8 +1,10 @@
 package com.mxnuchim.auth.mappers;
 
 import com.mxnuchim.auth.dto.ProfileUpdateDto;
+import com.mxnuchim.auth.domain.entities.Role;
 import com.mxnuchim.auth.domain.entities.User;
 import com.mxnuchim.auth.dto.request.RegistrationRequest;
+import com.mxnuchim.auth.dto.response.UserProfileResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,12 +31,17 @@ public class UserMapper {
     }
 
     public User toUser(RegistrationRequest request) {
+        return toUser(request, this.passwordEncoder.encode(request.getPassword()));
+    }
+
+    // for callers that hash the password themselves, e.g. the bulk import
+    public User toUser(final RegistrationRequest request, final String encodedPassword) {
         return User.builder()
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .phoneNumber(request.getPhoneNumber())
                 .email(request.getEmail())
-                .password(this.passwordEncoder.encode(request.getPassword()))
+                .password(encodedPassword)
                 .enabled(true)
                 .credentialsExpired(false)
                 .accountLocked(false)
@@ -42,4 +49,20 @@ public class UserMapper {
                 .phoneVerified(false)
                 .build();
     };
+
+    // reads the lazy roles, so call it inside the transaction that loaded the user
+    public UserProfileResponse toProfile(final User user) {
+        return UserProfileResponse.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .phoneNumber(user.getPhoneNumber())
+                .dateOfBirth(user.getDateOfBirth())
+                .profilePictureUrl(user.getProfilePictureUrl())
+                .emailVerified(user.isEmailVerified())
+                .phoneVerified(user.isPhoneVerified())
+                .roles(user.getRoles().stream().map(Role::getName).toList())
+                .build();
+    }
 }
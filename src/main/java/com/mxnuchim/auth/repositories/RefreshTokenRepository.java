@@ -0,0 +1,38 @@
+package com.mxnuchim.auth.repositories;
+
+import com.mxnuchim.auth.domain.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    // read from the primary: a token issued moments ago by another instance may not have reached the replica
+    @Override
+    @Transactional
+    Optional<RefreshToken> findById(UUID jti);
+
+    @Modifying
+    // matches no row when the token was already used or revoked, which makes the rotation exclusive across instances
+    @Query("update RefreshToken t set t.used = true where t.jti = :jti and t.used = false and t.revoked = false")
+    int markUsed(@Param("jti") UUID jti);
+
+    @Query("select t.revoked from RefreshToken t where t.jti = :jti")
+    boolean isRevoked(@Param("jti") UUID jti);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
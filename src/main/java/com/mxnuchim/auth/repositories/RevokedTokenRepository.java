@@ -0,0 +1,27 @@
+package com.mxnuchim.auth.repositories;
+
+import com.mxnuchim.auth.domain.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // read from the primary: a lagging replica could make the incremental sync skip a revocation for good
+    @Transactional
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    @Transactional
+    List<RevokedToken> findByRevokedAtGreaterThanEqual(Instant since);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
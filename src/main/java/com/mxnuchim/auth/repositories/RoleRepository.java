@@ -1,10 +1,15 @@
 package com.mxnuchim.auth.repositories;
 
 import com.mxnuchim.auth.domain.entities.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, String> {
+    // cached in the query cache; Hibernate invalidates it whenever the roles table changes through JPA
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String roleUser);
 }
@@ -1,23 +1,114 @@
 package com.mxnuchim.auth.repositories;
 
 import com.mxnuchim.auth.domain.entities.User;
+import com.mxnuchim.auth.dto.response.UserExportRow;
+import com.mxnuchim.auth.security.AuthUser;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
 
-    boolean existsByEmailIgnoreCase(String email);
+    // Email lookups compare lower(email) so they match the uk_users_email_lower expression index;
+    // the derived IgnoreCase queries would generate upper(email), which no index serves.
+    @Query("select count(u) > 0 from User u where lower(u.email) = lower(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
 
-    Optional<User> findByEmailIgnoreCase(String email);
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
 
-    Optional<User> findByEmailIgnoreCaseAndEnabledTrue(String email);
+    /**
+     * Loads what authentication needs, without a managed entity: one row per role, or a single row with a
+     * null role name. Use {@link #findAuthUserByEmail(String)}.
+     */
+    @Query("select new com.mxnuchim.auth.security.AuthUser(u.id, u.email, u.password, u.enabled, u.accountLocked, "
+            + "u.lockExpiresAt, u.credentialsExpired, u.tokenVersion, r.name) "
+            + "from User u left join u.roles r where lower(u.email) = lower(:email)")
+    List<AuthUser> findAuthUserRowsByEmail(@Param("email") String email);
+
+    default Optional<AuthUser> findAuthUserByEmail(final String email) {
+        return findAuthUserRowsByEmail(email).stream().reduce(AuthUser::withAuthoritiesOf);
+    }
 
     boolean existsByPhoneNumber(String phoneNumber);
 
     Optional<User> findByIdAndEnabledTrue(UUID id);
+
+    /**
+     * Counts users holding the email (case-insensitively) or the phone number, in one query.
+     */
+    @Query("select sum(case when lower(u.email) = lower(:email) then 1 else 0 end) as emailMatches, "
+            + "sum(case when u.phoneNumber = :phoneNumber then 1 else 0 end) as phoneMatches "
+            + "from User u where lower(u.email) = lower(:email) or u.phoneNumber = :phoneNumber")
+    UniquenessProbe probeUniqueness(@Param("email") String email, @Param("phoneNumber") String phoneNumber);
+
+    /**
+     * Returns the users already holding any of the (lower-cased) emails or phone numbers, in one query.
+     * Read from the primary, as the bulk import checks each batch against the ones it just committed.
+     */
+    @Transactional
+    @Query("select lower(u.email) as email, u.phoneNumber as phoneNumber from User u "
+            + "where lower(u.email) in :emails or u.phoneNumber in :phoneNumbers")
+    List<IdentityView> findIdentities(@Param("emails") Collection<String> emails,
+                                      @Param("phoneNumbers") Collection<String> phoneNumbers);
+
+    /**
+     * Keyset pagination for the export: the next {@code limit} users after {@code after} in id order,
+     * served by the primary key index however deep into the table the page is. Each page is its own
+     * short read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.mxnuchim.auth.dto.response.UserExportRow(u.id, u.firstName, u.lastName, u.email, "
+            + "u.phoneNumber, u.dateOfBirth, u.enabled, u.accountLocked, u.emailVerified, u.phoneVerified, u.createdDate) "
+            + "from User u where u.id > :after order by u.id")
+    List<UserExportRow> findExportPage(@Param("after") UUID after, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.accountLocked = true, u.lockExpiresAt = :until where lower(u.email) = lower(:email)")
+    int lockAccount(@Param("email") String email, @Param("until") LocalDateTime until);
+
+    // Token versions gate revocation, so they are read from the primary (a read-write transaction) rather than a
+    // replica that may still hold the version from before a bump, or miss rows modified just before the poll window.
+    @Transactional
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
+    @Transactional
+    @Query("select u.id as id, u.tokenVersion as tokenVersion from User u where u.lastModifiedDate >= :since")
+    List<TokenVersionView> findTokenVersionsModifiedSince(@Param("since") LocalDateTime since);
+
+    interface UniquenessProbe {
+
+        // null when no user matches at all
+        Long getEmailMatches();
+
+        Long getPhoneMatches();
+    }
+
+    interface IdentityView {
+
+        String getEmail();
+
+        String getPhoneNumber();
+    }
+
+    interface TokenVersionView {
+
+        UUID getId();
+
+        int getTokenVersion();
+    }
 }
 
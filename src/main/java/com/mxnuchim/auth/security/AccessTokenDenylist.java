@@ -0,0 +1,140 @@
+package com.mxnuchim.auth.security;
+
+import com.mxnuchim.auth.domain.entities.RevokedToken;
+import com.mxnuchim.auth.repositories.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Individually revoked access tokens, by {@code jti}. Revoking every token of a user is handled by
+ * {@link TokenVersionRegistry}; this covers single tokens such as the one presented at logout.
+ * Almost every token is not revoked, so a Bloom filter sits in front of the exact map: a negative
+ * answer costs a few memory reads and only possible hits fall through to the exact check.
+ * <p>
+ * Entries become irrelevant once every token they cover has expired, which is one access-token
+ * lifetime after revocation. Two filter generations each span one lifetime; at every rotation the
+ * older generation is dropped, which is exactly when all of its entries have expired.
+ */
+@Component
+@Slf4j
+public class AccessTokenDenylist {
+
+    private static final String JTI_PREFIX = "jti:";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration accessTokenLifetime;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    // key -> revocation instant
+    private final Map<String, Instant> entries = new ConcurrentHashMap<>();
+
+    private volatile Generations generations;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public AccessTokenDenylist(
+            final RevokedTokenRepository revokedTokenRepository,
+            final TransactionTemplate transactionTemplate,
+            @Value("${app.security.jwt.access-token-expiration}")
+            final long accessTokenExpiration,
+            @Value("${app.security.denylist.expected-entries:100000}")
+            final long expectedEntries,
+            @Value("${app.security.denylist.false-positive-rate:0.001}")
+            final double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.accessTokenLifetime = Duration.ofMillis(accessTokenExpiration);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.generations = new Generations(newFilter(), newFilter(), Instant.now());
+    }
+
+    public boolean isRevoked(final Claims claims) {
+        if (claims.getId() == null) {
+            return false;
+        }
+        final String key = JTI_PREFIX + claims.getId();
+        // possible hit: confirm against the exact entries
+        return this.generations.mightContain(key) && this.entries.containsKey(key);
+    }
+
+    public void revokeToken(final String tokenId, final Instant expiresAt) {
+        revoke(JTI_PREFIX + tokenId, expiresAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveEntries() {
+        final Instant now = Instant.now();
+        this.revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::addLocally);
+        this.lastSync = now;
+        log.info("Loaded {} active access-token revocation(s)", this.entries.size());
+    }
+
+    // picks up revocations written by other instances
+    @Scheduled(fixedDelayString = "${app.security.denylist.sync-interval:PT5S}", initialDelayString = "${app.security.denylist.sync-interval:PT5S}")
+    public void syncFromDatabase() {
+        // overlap the window slightly so rows committed late are not skipped; re-adding is idempotent
+        final Instant since = this.lastSync.minusSeconds(5);
+        this.lastSync = Instant.now();
+        this.revokedTokenRepository.findByRevokedAtGreaterThanEqual(since).forEach(this::addLocally);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.denylist.rotation-interval:PT1M}")
+    public void rotateGenerations() {
+        final Instant now = Instant.now();
+        final Generations current = this.generations;
+        if (current.startedAt().plus(this.accessTokenLifetime).isAfter(now)) {
+            return;
+        }
+
+        this.generations = new Generations(newFilter(), current.current(), now);
+        this.entries.entrySet().removeIf(entry -> entry.getValue().plus(this.accessTokenLifetime).isBefore(now));
+        this.transactionTemplate.executeWithoutResult(status -> this.revokedTokenRepository.deleteExpired(now));
+        log.debug("Rotated denylist filter generation, {} exact entries remain", this.entries.size());
+    }
+
+    private void revoke(final String key, final Instant expiresAt) {
+        final Instant revokedAt = Instant.now();
+        final RevokedToken revokedToken = RevokedToken.builder()
+                .revocationKey(key)
+                .revokedAt(revokedAt)
+                .expiresAt(expiresAt)
+                .build();
+        this.transactionTemplate.executeWithoutResult(status -> {
+            if (this.revokedTokenRepository.existsById(key)) {
+                revokedToken.setNewEntity(false);
+            }
+            this.revokedTokenRepository.save(revokedToken);
+        });
+        addLocally(revokedToken);
+    }
+
+    private void addLocally(final RevokedToken revokedToken) {
+        // the exact entry must be visible before the filter bit, so a filter hit always finds it
+        this.entries.merge(revokedToken.getRevocationKey(), revokedToken.getRevokedAt(),
+                (existing, added) -> existing.isAfter(added) ? existing : added);
+        this.generations.current().put(revokedToken.getRevocationKey());
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(this.expectedEntries, this.falsePositiveRate);
+    }
+
+    private record Generations(BloomFilter current, BloomFilter previous, Instant startedAt) {
+
+        boolean mightContain(final String key) {
+            return this.current.mightContain(key) || this.previous.mightContain(key);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.mxnuchim.auth.security;
+
+import com.mxnuchim.auth.domain.entities.Role;
+import com.mxnuchim.auth.domain.entities.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable principal for the authentication path, read with one join by
+ * {@link com.mxnuchim.auth.repositories.UserRepository#findAuthUserByEmail(String)} instead of loading a
+ * managed {@link User} and its roles. Safe to cache: nothing in it is lazy or tracked by Hibernate.
+ */
+public record AuthUser(
+        UUID id,
+        String email,
+        String password,
+        boolean enabled,
+        boolean accountLocked,
+        LocalDateTime lockExpiresAt,
+        boolean credentialsExpired,
+        int tokenVersion,
+        List<SimpleGrantedAuthority> authorities
+) implements UserDetails, UserPrincipal {
+
+    /**
+     * One row of the user/role join; {@code roleName} is null for a user without roles.
+     */
+    public AuthUser(
+            final UUID id,
+            final String email,
+            final String password,
+            final boolean enabled,
+            final boolean accountLocked,
+            final LocalDateTime lockExpiresAt,
+            final boolean credentialsExpired,
+            final int tokenVersion,
+            final String roleName
+    ) {
+        this(id, email, password, enabled, accountLocked, lockExpiresAt, credentialsExpired, tokenVersion,
+                roleName == null ? List.of() : List.of(new SimpleGrantedAuthority(roleName)));
+    }
+
+    public static AuthUser from(final User user) {
+        return new AuthUser(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.isEnabled(),
+                user.isAccountLocked(),
+                user.getLockExpiresAt(),
+                user.isCredentialsExpired(),
+                user.getTokenVersion(),
+                user.getRoles() == null
+                        ? List.of()
+                        : user.getRoles().stream().map(Role::getName).map(SimpleGrantedAuthority::new).toList()
+        );
+    }
+
+    /**
+     * Combines the rows of a user holding several roles.
+     */
+    public AuthUser withAuthoritiesOf(final AuthUser other) {
+        final List<SimpleGrantedAuthority> combined = new ArrayList<>(this.authorities);
+        combined.addAll(other.authorities);
+        return new AuthUser(this.id, this.email, this.password, this.enabled, this.accountLocked, this.lockExpiresAt,
+                this.credentialsExpired, this.tokenVersion, List.copyOf(combined));
+    }
+
+    @Override
+    public UUID getId() {
+        return this.id;
+    }
+
+    @Override
+    public String getUsername() {
+        return this.email;
+    }
+
+    @Override
+    public String getPassword() {
+        return this.password;
+    }
+
+    @Override
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        return this.authorities;
+    }
+
+    @Override
+    public int getTokenVersion() {
+        return this.tokenVersion;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return !this.accountLocked
+                || (this.lockExpiresAt != null && this.lockExpiresAt.isBefore(LocalDateTime.now()));
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return !this.credentialsExpired;
+    }
+
+    // keeps the password hash out of logs
+    @Override
+    public String toString() {
+        return "AuthUser[id=" + this.id + ", email=" + this.email + ", authorities=" + this.authorities + "]";
+    }
+}
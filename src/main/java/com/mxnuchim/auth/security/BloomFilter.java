@@ -0,0 +1,69 @@
+package com.mxnuchim.auth.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings. {@link #mightContain(String)} never returns a false
+ * negative; false positives occur at roughly the configured rate while the filter holds no more
+ * than the expected number of entries. Bits are only ever set, so concurrent readers and writers
+ * need no coordination beyond the atomic word updates.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(final long expectedInsertions, final double falsePositiveRate) {
+        final long entries = Math.max(1, expectedInsertions);
+        final long bits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        final int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / entries * Math.log(2)));
+    }
+
+    public void put(final String key) {
+        final long hash1 = hash(key);
+        final long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            final long bit = Math.floorMod(hash1 + i * hash2, this.bitCount);
+            final int index = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+            long current;
+            while (((current = this.words.get(index)) & mask) == 0
+                    && !this.words.compareAndSet(index, current, current | mask)) {
+                // another writer changed this word, retry with its new value
+            }
+        }
+    }
+
+    public boolean mightContain(final String key) {
+        final long hash1 = hash(key);
+        final long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            final long bit = Math.floorMod(hash1 + i * hash2, this.bitCount);
+            if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a followed by a SplitMix64 finalizer for good bit dispersion
+    private static long hash(final String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (final byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
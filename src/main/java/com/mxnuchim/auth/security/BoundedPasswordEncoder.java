@@ -0,0 +1,135 @@
+package com.mxnuchim.auth.security;
+
+import com.mxnuchim.auth.exceptions.BusinessException;
+import com.mxnuchim.auth.exceptions.ErrorCode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing and verification on a dedicated pool sized to the CPU count, so a burst
+ * of logins cannot occupy more cores than the pool has threads. When the bounded queue is full,
+ * callers are rejected right away with {@link ErrorCode#PASSWORD_HASHING_BUSY} (429) instead of
+ * piling up on the request threads.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+
+    public BoundedPasswordEncoder(
+            final PasswordEncoder delegate,
+            final int poolSize,
+            final int queueCapacity,
+            final MeterRegistry meterRegistry) {
+        final int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                // always platform threads: hashing is pure CPU work, so virtual threads would add
+                // scheduling overhead without allowing more useful concurrency than there are cores
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        // encode/matches include the queue wait, which is also recorded separately
+        this.encodeTimer = Timer.builder("auth.password.encode")
+                .description("Password hashing latency, including time queued for the hashing pool")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.matches")
+                .description("Password verification latency, including time queued for the hashing pool")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time spent waiting for a hashing pool thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", this, BoundedPasswordEncoder::getQueueDepth)
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", this, BoundedPasswordEncoder::getActiveCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.password.rejected", this, BoundedPasswordEncoder::getRejectedCount)
+                .description("Hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+        log.info("Password hashing pool started with {} thread(s) and queue capacity {}", threads, queueCapacity);
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return this.encodeTimer.record(() -> execute(() -> this.delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return this.matchesTimer.record(() -> execute(() -> this.delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public PasswordEncoder getDelegate() {
+        return this.delegate;
+    }
+
+    public int getQueueDepth() {
+        return this.executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return this.executor.getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return this.rejected.sum();
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private <T> T execute(final Callable<T> task) {
+        final long enqueuedAt = System.nanoTime();
+        try {
+            return this.executor.submit(() -> {
+                this.queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            }).get();
+        } catch (final RejectedExecutionException e) {
+            this.rejected.increment();
+            throw new BusinessException(ErrorCode.PASSWORD_HASHING_BUSY);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package com.mxnuchim.auth.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -18,11 +20,42 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final String OUTCOME_METRIC = "auth.filter.requests";
+
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final TokenVersionRegistry tokenVersionRegistry;
     private final UserDetailsService userDetailsService;
+    private final Counter noHeaderCounter;
+    private final Counter invalidTokenCounter;
+    private final Counter revokedCounter;
+    private final Counter rejectedCounter;
+    private final Counter authenticatedCounter;
+    @Value("${app.security.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    public JwtFilter(
+            final JwtService jwtService,
+            final VerifiedTokenCache verifiedTokenCache,
+            final AccessTokenDenylist accessTokenDenylist,
+            final TokenVersionRegistry tokenVersionRegistry,
+            final UserDetailsService userDetailsService,
+            final MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.userDetailsService = userDetailsService;
+        this.noHeaderCounter = meterRegistry.counter(OUTCOME_METRIC, "outcome", "no_header");
+        this.invalidTokenCounter = meterRegistry.counter(OUTCOME_METRIC, "outcome", "invalid_token");
+        this.revokedCounter = meterRegistry.counter(OUTCOME_METRIC, "outcome", "revoked");
+        // valid signature, but a stale token version or a subject that no longer matches
+        this.rejectedCounter = meterRegistry.counter(OUTCOME_METRIC, "outcome", "rejected");
+        this.authenticatedCounter = meterRegistry.counter(OUTCOME_METRIC, "outcome", "authenticated");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -40,31 +73,61 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         final String jwt;
+        final Claims claims;
         final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            this.noHeaderCounter.increment();
             filterChain.doFilter(request, response);
             return;
         }
 
         jwt = authHeader.substring(7);
-        username = this.jwtService.extractUsername(jwt);
+        try {
+            claims = this.verifiedTokenCache.verify(jwt);
+        } catch (final RuntimeException e) {
+            this.invalidTokenCounter.increment();
+            throw e;
+        }
+        username = claims.getSubject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            final UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // revoked tokens stay unauthenticated and are rejected by the entry point on protected routes
+            if (this.accessTokenDenylist.isRevoked(claims)) {
+                this.revokedCounter.increment();
+                filterChain.doFilter(request, response);
+                return;
+            }
 
-            if (this.jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+            final UserPrincipal principal = resolvePrincipal(claims, username);
+
+            if (this.jwtService.isTokenValid(claims, principal.getUsername())
+                    && this.tokenVersionRegistry.isCurrent(principal.getId(), this.jwtService.extractTokenVersion(claims))) {
                 final UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities());
+                        principal.getAuthorities());
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                this.authenticatedCounter.increment();
+            } else {
+                this.rejectedCounter.increment();
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private UserPrincipal resolvePrincipal(final Claims claims, final String username) {
+        if (this.statelessPrincipal) {
+            final JwtPrincipal principal = this.jwtService.extractPrincipal(claims);
+            if (principal != null) {
+                return principal;
+            }
+        }
+        // database-backed mode, and tokens issued before the uid/roles claims existed
+        return (UserPrincipal) this.userDetailsService.loadUserByUsername(username);
+    }
 }
\ No newline at end of file
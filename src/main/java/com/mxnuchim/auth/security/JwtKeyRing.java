@@ -0,0 +1,235 @@
+package com.mxnuchim.auth.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds the current signing key and every public key that is still accepted for verification,
+ * indexed by {@code kid}. Lookups read an immutable map published through a volatile field, so
+ * verification never takes a lock; rotation builds a new map and swaps it in.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final SigningAlgorithm algorithm;
+    private final boolean rotationEnabled;
+    // keys rotated out stay verifiable until every token they signed has expired
+    private final Duration retention;
+    private final String defaultKeyId;
+
+    private volatile SigningKey signingKey;
+    private volatile Map<String, VerificationKey> verificationKeys;
+    private volatile JwkSet jwkSet;
+
+    public JwtKeyRing(
+            @Value("${app.security.jwt.algorithm:RS256}")
+            final SigningAlgorithm algorithm,
+            @Value("${app.security.jwt.key-id:}")
+            final String keyId,
+            @Value("${app.security.jwt.private-key:keys/local-only/private_key.pem}")
+            final String privateKeyPath,
+            @Value("${app.security.jwt.public-key:keys/local-only/public_key.pem}")
+            final String publicKeyPath,
+            @Value("${app.security.jwt.verification-keys:}")
+            final List<String> additionalVerificationKeys,
+            @Value("${app.security.jwt.rotation.enabled:false}")
+            final boolean rotationEnabled,
+            @Value("${app.security.jwt.rotation.single-instance:false}")
+            final boolean singleInstance,
+            @Value("${app.security.jwt.refresh-token-expiration}")
+            final long refreshTokenExpiration) {
+        // every instance would generate its own key and reject the tokens signed by the others
+        if (rotationEnabled && !singleInstance) {
+            throw new IllegalStateException("In-memory JWT key rotation only works with a single instance. "
+                    + "Rotate keys through app.security.jwt.private-key and verification-keys instead, or set "
+                    + "app.security.jwt.rotation.single-instance=true if exactly one instance signs and verifies tokens");
+        }
+        this.algorithm = algorithm;
+        this.rotationEnabled = rotationEnabled;
+        this.retention = Duration.ofMillis(refreshTokenExpiration);
+
+        final Map<String, VerificationKey> keys = new HashMap<>();
+        try {
+            final PrivateKey privateKey = KeyUtils.loadPrivateKey(privateKeyPath, algorithm);
+            final PublicKey publicKey = KeyUtils.loadPublicKey(publicKeyPath, algorithm);
+            final String kid = keyId == null || keyId.isBlank() ? deriveKeyId(publicKey) : keyId;
+            this.signingKey = new SigningKey(kid, privateKey);
+            keys.put(kid, new VerificationKey(kid, publicKey, null));
+
+            for (final String entry : additionalVerificationKeys) {
+                final String[] parts = entry.split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected <kid>=<public-key-path> but got: " + entry);
+                }
+                final String additionalKid = parts[0].trim();
+                keys.put(additionalKid, new VerificationKey(
+                        additionalKid,
+                        KeyUtils.loadPublicKey(parts[1].trim(), algorithm),
+                        null
+                ));
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load " + algorithm + " JWT keys", e);
+        }
+        this.defaultKeyId = this.signingKey.kid();
+        publish(keys);
+        log.info("JWT key ring initialised with {} key(s), signing with kid {}", keys.size(), this.defaultKeyId);
+    }
+
+    public SigningAlgorithm getAlgorithm() {
+        return this.algorithm;
+    }
+
+    public SigningKey getSigningKey() {
+        return this.signingKey;
+    }
+
+    public JwkSet getJwkSet() {
+        return this.jwkSet;
+    }
+
+    @Override
+    protected Key locate(final JwsHeader header) {
+        // tokens issued before kids were stamped were all signed by the configured key
+        final String kid = header.getKeyId() != null ? header.getKeyId() : this.defaultKeyId;
+        final VerificationKey key = this.verificationKeys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id: " + kid);
+        }
+        return key.publicKey();
+    }
+
+    /**
+     * Generates a fresh key pair, makes it the signing key and retires keys whose retention
+     * has elapsed. Generated keys live in memory only and are lost on restart, so rotation is
+     * refused at startup unless the deployment declares a single instance.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.security.jwt.rotation.interval:PT24H}",
+            initialDelayString = "${app.security.jwt.rotation.interval:PT24H}"
+    )
+    public void rotate() {
+        if (!this.rotationEnabled) {
+            return;
+        }
+
+        final KeyPair keyPair = KeyUtils.generateKeyPair(this.algorithm);
+        final String kid = UUID.randomUUID().toString();
+        final Instant now = Instant.now();
+
+        final Map<String, VerificationKey> keys = new HashMap<>();
+        this.verificationKeys.values()
+                .stream()
+                .filter(key -> key.retireAt() == null || key.retireAt().isAfter(now))
+                .forEach(key -> keys.put(key.kid(), key));
+
+        final String previousKid = this.signingKey.kid();
+        keys.computeIfPresent(previousKid, (id, key) -> new VerificationKey(id, key.publicKey(), now.plus(this.retention)));
+        keys.put(kid, new VerificationKey(kid, keyPair.getPublic(), null));
+
+        // publish the verification key before anything is signed with it
+        publish(keys);
+        this.signingKey = new SigningKey(kid, keyPair.getPrivate());
+        log.info("Rotated JWT signing key from {} to {} ({} verification key(s))", previousKid, kid, keys.size());
+    }
+
+    private void publish(final Map<String, VerificationKey> keys) {
+        this.verificationKeys = Map.copyOf(keys);
+        final List<Map<String, Object>> jwks = new ArrayList<>();
+        keys.values().forEach(key -> jwks.add(toJwk(key)));
+        final String etag = deriveETag(keys.keySet().stream().sorted().toList());
+        this.jwkSet = new JwkSet(Map.of("keys", List.copyOf(jwks)), etag);
+    }
+
+    private Map<String, Object> toJwk(final VerificationKey key) {
+        final Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", this.algorithm.getSignatureAlgorithm().getId());
+        switch (key.publicKey()) {
+            case RSAPublicKey rsa -> {
+                jwk.put("kty", "RSA");
+                jwk.put("n", encodeUnsigned(rsa.getModulus(), 0));
+                jwk.put("e", encodeUnsigned(rsa.getPublicExponent(), 0));
+            }
+            case ECPublicKey ec -> {
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("x", encodeUnsigned(ec.getW().getAffineX(), 32));
+                jwk.put("y", encodeUnsigned(ec.getW().getAffineY(), 32));
+            }
+            default -> {
+                // Ed25519: the X.509 encoding is a fixed 12-byte prefix followed by the 32-byte key
+                final byte[] encoded = key.publicKey().getEncoded();
+                jwk.put("kty", "OKP");
+                jwk.put("crv", "Ed25519");
+                jwk.put("x", BASE64_URL.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+            }
+        }
+        return jwk;
+    }
+
+    private static String encodeUnsigned(final BigInteger value, final int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            final byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    private static String deriveKeyId(final PublicKey publicKey) {
+        return BASE64_URL.encodeToString(Arrays.copyOf(sha256(publicKey.getEncoded()), 16));
+    }
+
+    private static String deriveETag(final List<String> kids) {
+        return "\"" + HexFormat.of().formatHex(Arrays.copyOf(sha256(String.join(",", kids).getBytes(StandardCharsets.UTF_8)), 16)) + "\"";
+    }
+
+    private static byte[] sha256(final byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (final Exception e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record SigningKey(String kid, PrivateKey privateKey) {}
+
+    public record JwkSet(Map<String, Object> document, String etag) {}
+
+    private record VerificationKey(String kid, PublicKey publicKey, Instant retireAt) {}
+}
@@ -0,0 +1,30 @@
+package com.mxnuchim.auth.security;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lightweight principal built straight from verified access-token claims, used when
+ * {@code app.security.jwt.stateless-principal} is enabled so the filter never touches the database.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public class JwtPrincipal implements UserPrincipal, AuthenticatedPrincipal {
+
+    private final UUID id;
+    private final String username;
+    private final List<SimpleGrantedAuthority> authorities;
+    private final int tokenVersion;
+
+    @Override
+    public String getName() {
+        return this.username;
+    }
+}
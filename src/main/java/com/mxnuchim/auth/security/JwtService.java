@@ -2,92 +2,184 @@ package com.mxnuchim.auth.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import java.security.PrivateKey;
-import java.security.PublicKey;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
     public static final String TOKEN_TYPE = "token_type";
-    private final PrivateKey privateKey;
-    private final PublicKey publicKey;
-    @Value("${app.security.jwt.access-token-expiration}")
-    private long accessTokenExpiration;
-    @Value("${app.security.jwt.refresh-token-expiration}")
-    private long refreshTokenExpiration;
-
-    public JwtService() {
-        try {
-            this.privateKey = KeyUtils.loadPrivateKey("keys/local-only/private_key.pem");
-            this.publicKey = KeyUtils.loadPublicKey("keys/local-only/public_key.pem");
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to load JWT keys", e);
-        }
+    public static final String USER_ID = "uid";
+    public static final String ROLES = "roles";
+    public static final String TOKEN_VERSION = "ver";
+    private static final String ACCESS_TOKEN_TYPE = "ACCESS_TOKEN";
+    private static final String REFRESH_TOKEN_TYPE = "REFRESH_TOKEN";
+    private final JwtKeyRing keyRing;
+    // JwtParser is immutable and thread-safe, so one instance is shared by every request;
+    // the key ring resolves the verification key from the token's kid header
+    private final JwtParser jwtParser;
+    private final long accessTokenExpiration;
+    private final long refreshTokenExpiration;
+    private final Timer signAccessTimer;
+    private final Timer signRefreshTimer;
+    private final Timer verifyAccessTimer;
+    private final Timer verifyRefreshTimer;
+    private final Timer verifyFailureTimer;
+
+    public JwtService(
+            final JwtKeyRing keyRing,
+            final MeterRegistry meterRegistry,
+            @Value("${app.security.jwt.access-token-expiration}")
+            final long accessTokenExpiration,
+            @Value("${app.security.jwt.refresh-token-expiration}")
+            final long refreshTokenExpiration) {
+        this.keyRing = keyRing;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(keyRing)
+                .build();
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.signAccessTimer = timer(meterRegistry, "auth.jwt.sign", "access", "success");
+        this.signRefreshTimer = timer(meterRegistry, "auth.jwt.sign", "refresh", "success");
+        this.verifyAccessTimer = timer(meterRegistry, "auth.jwt.verify", "access", "success");
+        this.verifyRefreshTimer = timer(meterRegistry, "auth.jwt.verify", "refresh", "success");
+        // the type of a token that fails verification is unknown
+        this.verifyFailureTimer = timer(meterRegistry, "auth.jwt.verify", "unknown", "failure");
     }
 
-    public String generateAccessToken(final String username) {
-        final Map<String, Object> claims = Map.of(TOKEN_TYPE, "ACCESS_TOKEN");
-        return buildToken(username, claims, this.accessTokenExpiration);
+    public String generateAccessToken(final UserPrincipal user) {
+        final List<String> roles = user.getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        final Map<String, Object> claims = Map.of(
+                TOKEN_TYPE, ACCESS_TOKEN_TYPE,
+                USER_ID, user.getId().toString(),
+                ROLES, roles,
+                TOKEN_VERSION, user.getTokenVersion()
+        );
+        return this.signAccessTimer.record(() ->
+                buildToken(UUID.randomUUID(), user.getUsername(), claims, this.accessTokenExpiration));
     }
 
-    public String generateRefreshToken(final String username) {
-        final Map<String, Object> claims = Map.of(TOKEN_TYPE, "REFRESH_TOKEN");
-        return buildToken(username, claims, this.refreshTokenExpiration);
+    public String generateRefreshToken(final UserPrincipal user, final UUID tokenId) {
+        final Map<String, Object> claims = Map.of(
+                TOKEN_TYPE, REFRESH_TOKEN_TYPE,
+                TOKEN_VERSION, user.getTokenVersion()
+        );
+        return this.signRefreshTimer.record(() ->
+                buildToken(tokenId, user.getUsername(), claims, this.refreshTokenExpiration));
     }
 
-    public String buildToken(final String username, final Map<String, Object> claims, final long expiration) {
+    public String buildToken(final UUID tokenId, final String username, final Map<String, Object> claims, final long expiration) {
+        final JwtKeyRing.SigningKey signingKey = this.keyRing.getSigningKey();
         return Jwts.builder()
+                .header()
+                .keyId(signingKey.kid())
+                .and()
                 .claims(claims)
+                .id(tokenId.toString())
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(this.privateKey)
+                .signWith(signingKey.privateKey(), this.keyRing.getAlgorithm().getSignatureAlgorithm())
                 .compact();
     }
 
+    /**
+     * Parses the token and checks its signature exactly once. The returned claims can be
+     * passed to the claims-based helpers below instead of re-parsing the compact token.
+     */
+    public Claims verifyToken(final String token) {
+        final long start = System.nanoTime();
+        try {
+            final Claims claims = this.jwtParser
+                    .parseSignedClaims(token)
+                    .getPayload();
+            final Timer timer = REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE, String.class))
+                    ? this.verifyRefreshTimer
+                    : this.verifyAccessTimer;
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (final JwtException e) {
+            this.verifyFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new RuntimeException("Invalid token", e);
+        }
+    }
+
     public boolean isTokenValid(final String token, final String expectedUsername) {
-        final String username = extractUsername(token);
-        return username.equals(expectedUsername) && !isTokenExpired(token);
+        return isTokenValid(verifyToken(token), expectedUsername);
     }
 
-    public String extractUsername(final String token) {
-        return extractClaims(token).getSubject();
+    public boolean isTokenValid(final Claims claims, final String expectedUsername) {
+        final String username = claims.getSubject();
+        return username != null && username.equals(expectedUsername) && !isTokenExpired(claims);
     }
 
-    private boolean isTokenExpired(final String token) {
-        return extractClaims(token).getExpiration()
-                .before(new Date());
+    public String extractUsername(final String token) {
+        return verifyToken(token).getSubject();
     }
 
-    private Claims extractClaims(final String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(this.publicKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (final JwtException e) {
-            throw new RuntimeException("Invalid token", e);
+    /**
+     * Builds the principal from the user id and role claims of an access token, or returns
+     * {@code null} for tokens issued before those claims were embedded.
+     */
+    public JwtPrincipal extractPrincipal(final Claims claims) {
+        final String userId = claims.get(USER_ID, String.class);
+        final List<?> roles = claims.get(ROLES, List.class);
+        if (userId == null || roles == null) {
+            return null;
         }
+
+        final List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        return new JwtPrincipal(UUID.fromString(userId), claims.getSubject(), authorities, extractTokenVersion(claims));
+    }
+
+    /**
+     * Tokens issued before versions were stamped count as version 0, so they stay valid
+     * until the user's first password change, deactivation or forced logout.
+     */
+    public int extractTokenVersion(final Claims claims) {
+        final Integer version = claims.get(TOKEN_VERSION, Integer.class);
+        return version != null ? version : 0;
+    }
+
+    private boolean isTokenExpired(final Claims claims) {
+        return claims.getExpiration()
+                .before(new Date());
     }
 
-    public String refreshAccessToken(final String refreshToken) {
-        final Claims claims = extractClaims(refreshToken);
+    public Claims verifyRefreshToken(final String refreshToken) {
+        final Claims claims = verifyToken(refreshToken);
 
-        if (!"REFRESH_TOKEN".equals(claims.get(TOKEN_TYPE, String.class))) {
+        if (!REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE, String.class))) {
             throw new RuntimeException("Invalid token type");
         }
-        if (claims.getExpiration().before(new Date())) {
+        if (isTokenExpired(claims)) {
             throw new RuntimeException("Refresh token expired");
         }
 
-        final String username = claims.getSubject();
-        return generateAccessToken(username);
+        return claims;
+    }
+
+    private static Timer timer(final MeterRegistry meterRegistry, final String name, final String type, final String outcome) {
+        return Timer.builder(name)
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
\ No newline at end of file
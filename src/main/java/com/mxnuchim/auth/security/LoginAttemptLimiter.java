@@ -0,0 +1,119 @@
+package com.mxnuchim.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mxnuchim.auth.exceptions.BusinessException;
+import com.mxnuchim.auth.exceptions.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Counts failed logins per account and per client IP over a sliding window. Callers check
+ * {@link #checkAllowed(String, String)} before authenticating, so throttled attempts are
+ * rejected without loading the user or running the password encoder.
+ * <p>
+ * Counters are held in bounded maps that drop idle keys, so a spray of distinct IPs or
+ * usernames cannot grow memory without limit.
+ */
+@Component
+@Slf4j
+public class LoginAttemptLimiter {
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int buckets;
+    private final int maxAccountFailures;
+    private final int maxIpFailures;
+    private final int lockThreshold;
+    private final Cache<String, SlidingWindowCounter> accountFailures;
+    private final Cache<String, SlidingWindowCounter> ipFailures;
+
+    public LoginAttemptLimiter(
+            @Value("${app.security.login-throttling.enabled:true}")
+            final boolean enabled,
+            @Value("${app.security.login-throttling.window:PT15M}")
+            final Duration window,
+            @Value("${app.security.login-throttling.buckets:15}")
+            final int buckets,
+            @Value("${app.security.login-throttling.max-account-failures:10}")
+            final int maxAccountFailures,
+            @Value("${app.security.login-throttling.max-ip-failures:50}")
+            final int maxIpFailures,
+            @Value("${app.security.login-throttling.lock-threshold:5}")
+            final int lockThreshold,
+            @Value("${app.security.login-throttling.max-tracked-keys:100000}")
+            final long maxTrackedKeys) {
+        this.enabled = enabled;
+        this.window = window;
+        this.buckets = buckets;
+        this.maxAccountFailures = maxAccountFailures;
+        this.maxIpFailures = maxIpFailures;
+        this.lockThreshold = lockThreshold;
+        // an idle counter has nothing left inside its window, so dropping it loses nothing
+        this.accountFailures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(window)
+                .build();
+        this.ipFailures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(window)
+                .build();
+        log.info("Login throttling enabled: {} (window={}, account={}, ip={}, lock-threshold={})",
+                enabled, window, maxAccountFailures, maxIpFailures, lockThreshold);
+    }
+
+    public void checkAllowed(final String email, final String clientIp) {
+        if (!this.enabled) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        if (exceeds(this.accountFailures, normalize(email), now, this.maxAccountFailures)
+                || exceeds(this.ipFailures, clientIp, now, this.maxIpFailures)) {
+            throw new BusinessException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+    }
+
+    /**
+     * Records a failed attempt and returns whether the account has now reached the lock threshold.
+     */
+    public boolean recordFailure(final String email, final String clientIp) {
+        if (!this.enabled) {
+            return false;
+        }
+        final long now = System.currentTimeMillis();
+        if (clientIp != null) {
+            this.ipFailures.get(clientIp, key -> newCounter()).increment(now);
+        }
+        final long failures = this.accountFailures.get(normalize(email), key -> newCounter()).increment(now);
+        return this.lockThreshold > 0 && failures >= this.lockThreshold;
+    }
+
+    public void recordSuccess(final String email) {
+        // only the account counter resets; a shared IP keeps its history
+        this.accountFailures.invalidate(normalize(email));
+    }
+
+    private SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(this.window, this.buckets);
+    }
+
+    private static boolean exceeds(
+            final Cache<String, SlidingWindowCounter> counters,
+            final String key,
+            final long now,
+            final int limit) {
+        if (key == null) {
+            return false;
+        }
+        final SlidingWindowCounter counter = counters.getIfPresent(key);
+        return counter != null && counter.sum(now) >= limit;
+    }
+
+    private static String normalize(final String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mxnuchim.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Picks hashing cost parameters by timing the encoders on the current host, so the
+ * configured target latency holds on every hardware class. The result never drops below
+ * the library defaults.
+ */
+@Slf4j
+public final class PasswordHashCalibrator {
+
+    public static final int MIN_BCRYPT_STRENGTH = 10;
+    public static final int MAX_BCRYPT_STRENGTH = 16;
+    public static final int MIN_ARGON2_ITERATIONS = 2;
+    public static final int MAX_ARGON2_ITERATIONS = 12;
+    public static final int ARGON2_SALT_LENGTH = 16;
+    public static final int ARGON2_HASH_LENGTH = 32;
+    public static final int ARGON2_PARALLELISM = 1;
+
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd!";
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibrator() {}
+
+    public static int calibrateBCryptStrength(final Duration targetLatency) {
+        final long measured = medianNanos(new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH));
+        // every extra BCrypt round doubles the work
+        final double headroom = (double) targetLatency.toNanos() / measured;
+        final int extraRounds = headroom > 1 ? (int) Math.floor(Math.log(headroom) / Math.log(2)) : 0;
+        final int strength = Math.min(MAX_BCRYPT_STRENGTH, MIN_BCRYPT_STRENGTH + extraRounds);
+        log.info("Calibrated BCrypt strength {} ({} ms at strength {}, target {} ms)",
+                strength, measured / 1_000_000, MIN_BCRYPT_STRENGTH, targetLatency.toMillis());
+        return strength;
+    }
+
+    public static int calibrateArgon2Iterations(final Duration targetLatency, final int memoryKib) {
+        final long measured = medianNanos(argon2(memoryKib, MIN_ARGON2_ITERATIONS));
+        // Argon2 cost grows linearly with the iteration count
+        final long iterations = Math.round(MIN_ARGON2_ITERATIONS * (double) targetLatency.toNanos() / measured);
+        final int calibrated = Math.clamp(iterations, MIN_ARGON2_ITERATIONS, MAX_ARGON2_ITERATIONS);
+        log.info("Calibrated Argon2id iterations {} ({} ms at {} iterations / {} KiB, target {} ms)",
+                calibrated, measured / 1_000_000, MIN_ARGON2_ITERATIONS, memoryKib, targetLatency.toMillis());
+        return calibrated;
+    }
+
+    public static Argon2PasswordEncoder argon2(final int memoryKib, final int iterations) {
+        return new Argon2PasswordEncoder(
+                ARGON2_SALT_LENGTH,
+                ARGON2_HASH_LENGTH,
+                ARGON2_PARALLELISM,
+                memoryKib,
+                iterations
+        );
+    }
+
+    private static long medianNanos(final PasswordEncoder encoder) {
+        // the first call pays for class loading and JIT warm-up
+        encoder.encode(SAMPLE_PASSWORD);
+        final long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            final long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Math.max(1, samples[SAMPLES / 2]);
+    }
+}
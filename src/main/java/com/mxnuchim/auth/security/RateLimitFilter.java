@@ -0,0 +1,122 @@
+package com.mxnuchim.auth.security;
+
+import com.mxnuchim.auth.exceptions.ErrorCode;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client request budgets, applied after {@link JwtFilter} so authenticated requests are
+ * keyed by user and anonymous ones by client IP. The auth endpoints and the user endpoints
+ * have separate budgets; everything else is not limited. Responses carry the
+ * {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset} headers,
+ * and rejections add {@code Retry-After}.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH = "/api/v1/auth/";
+    private static final String USERS_PATH = "/api/v1/users/";
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter authLimiter;
+    private final TokenBucketRateLimiter usersLimiter;
+
+    public RateLimitFilter(
+            @Value("${app.security.rate-limit.enabled:true}")
+            final boolean enabled,
+            @Value("${app.security.rate-limit.auth.capacity:20}")
+            final int authCapacity,
+            @Value("${app.security.rate-limit.auth.period:PT1M}")
+            final Duration authPeriod,
+            @Value("${app.security.rate-limit.users.capacity:120}")
+            final int usersCapacity,
+            @Value("${app.security.rate-limit.users.period:PT1M}")
+            final Duration usersPeriod,
+            @Value("${app.security.rate-limit.max-tracked-clients:100000}")
+            final long maxTrackedClients) {
+        this.enabled = enabled;
+        this.authLimiter = new TokenBucketRateLimiter(authCapacity, authPeriod, maxTrackedClients);
+        this.usersLimiter = new TokenBucketRateLimiter(usersCapacity, usersPeriod, maxTrackedClients);
+        log.info("Rate limiting enabled: {} (auth={}/{}, users={}/{})",
+                enabled, authCapacity, authPeriod, usersCapacity, usersPeriod);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull final HttpServletRequest request) {
+        return !this.enabled || limiterFor(request.getServletPath()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull
+            final HttpServletRequest request,
+            @NonNull
+            final HttpServletResponse response,
+            @NonNull
+            final FilterChain filterChain) throws ServletException, IOException {
+
+        final TokenBucketRateLimiter limiter = limiterFor(request.getServletPath());
+        final TokenBucketRateLimiter.Decision decision = limiter.tryAcquire(clientKey(request));
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(decision.resetNanos())));
+
+        if (!decision.allowed()) {
+            reject(response, decision);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private TokenBucketRateLimiter limiterFor(final String path) {
+        if (path.startsWith(AUTH_PATH)) {
+            return this.authLimiter;
+        }
+        if (path.startsWith(USERS_PATH)) {
+            return this.usersLimiter;
+        }
+        return null;
+    }
+
+    private static String clientKey(final HttpServletRequest request) {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        // behind a proxy, enable server.forward-headers-strategy so this is the client address
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(final HttpServletResponse response, final TokenBucketRateLimiter.Decision decision) throws IOException {
+        final ErrorCode errorCode = ErrorCode.TOO_MANY_REQUESTS;
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(decision.retryAfterNanos())));
+        response.setStatus(errorCode.getStatus().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // same shape as ErrorResponse; both values are fixed strings without characters that need escaping
+        response.getWriter().write("{\"message\":\"" + errorCode.getDefaultMessage()
+                + "\",\"code\":\"" + errorCode.getCode() + "\"}");
+    }
+
+    // headers carry whole seconds, rounded up so clients never retry too early
+    private static long toSeconds(final long nanos) {
+        return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,123 @@
+package com.mxnuchim.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mxnuchim.auth.domain.entities.RefreshToken;
+import com.mxnuchim.auth.exceptions.BusinessException;
+import com.mxnuchim.auth.exceptions.ErrorCode;
+import com.mxnuchim.auth.repositories.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Server-side state of refresh tokens, grouped in families that start at login and grow by one
+ * token per rotation. The {@code refresh_tokens} table is authoritative for whether a token was
+ * used or revoked, so every instance sees a rotation as soon as it commits. Only the immutable
+ * part of a token (family, user, expiry) is cached, to spare the lookup on rotation and logout.
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration refreshTokenLifetime;
+    private final Cache<UUID, TokenState> tokens;
+
+    public RefreshTokenStore(
+            final RefreshTokenRepository refreshTokenRepository,
+            final TransactionTemplate transactionTemplate,
+            @Value("${app.security.jwt.refresh-token-expiration}")
+            final long refreshTokenExpiration,
+            @Value("${app.security.refresh-tokens.max-cached:100000}")
+            final long maxCached) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.refreshTokenLifetime = Duration.ofMillis(refreshTokenExpiration);
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxCached)
+                .expireAfterWrite(this.refreshTokenLifetime)
+                .build();
+    }
+
+    public UUID issue(final UUID userId, final UUID familyId) {
+        final UUID jti = UUID.randomUUID();
+        final Instant expiresAt = Instant.now().plus(this.refreshTokenLifetime);
+        // written before the token is handed out, so any instance can rotate it
+        this.refreshTokenRepository.save(RefreshToken.builder()
+                .jti(jti)
+                .familyId(familyId)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .build());
+        this.tokens.put(jti, new TokenState(jti, familyId, userId, expiresAt));
+        return jti;
+    }
+
+    /**
+     * Consumes a refresh token. Each token can be used exactly once: presenting one that was
+     * already rotated means it leaked, so its whole family is revoked. The conditional update
+     * decides which of two concurrent rotations wins, whichever instance they reach.
+     */
+    public TokenState rotate(final UUID jti) {
+        final TokenState state = find(jti);
+        final ErrorCode rejection = this.transactionTemplate.execute(status -> {
+            if (this.refreshTokenRepository.markUsed(jti) == 1) {
+                return null;
+            }
+            if (this.refreshTokenRepository.isRevoked(jti)) {
+                return ErrorCode.INVALID_REFRESH_TOKEN;
+            }
+            log.warn("Refresh token {} reused, revoking family {}", jti, state.familyId());
+            this.refreshTokenRepository.revokeFamily(state.familyId());
+            return ErrorCode.REFRESH_TOKEN_REUSED;
+        });
+
+        if (rejection != null) {
+            throw new BusinessException(rejection);
+        }
+        return state;
+    }
+
+    public void revoke(final UUID jti) {
+        revokeFamily(find(jti).familyId());
+    }
+
+    public void revokeFamily(final UUID familyId) {
+        this.transactionTemplate.executeWithoutResult(status -> this.refreshTokenRepository.revokeFamily(familyId));
+    }
+
+    @Scheduled(cron = "${app.security.refresh-tokens.purge-cron:0 0 3 * * *}")
+    public void purgeExpired() {
+        final int deleted = this.transactionTemplate.execute(status -> this.refreshTokenRepository.deleteExpired(Instant.now()));
+        log.info("Purged {} expired refresh token(s)", deleted);
+    }
+
+    private TokenState find(final UUID jti) {
+        final TokenState state = this.tokens.get(jti, this::load);
+        if (state == null || state.expiresAt().isBefore(Instant.now())) {
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        return state;
+    }
+
+    private TokenState load(final UUID jti) {
+        return this.refreshTokenRepository.findById(jti)
+                .map(token -> new TokenState(token.getJti(), token.getFamilyId(), token.getUserId(), token.getExpiresAt()))
+                .orElse(null);
+    }
+
+    public record TokenState(
+            UUID jti,
+            UUID familyId,
+            UUID userId,
+            Instant expiresAt
+    ) {}
+}
@@ -0,0 +1,24 @@
+package com.mxnuchim.auth.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.Getter;
+
+@Getter
+public enum SigningAlgorithm {
+
+    RS256("RSA", Jwts.SIG.RS256),
+    ES256("EC", Jwts.SIG.ES256),
+    ED25519("Ed25519", Jwts.SIG.EdDSA);
+
+    private final String keyAlgorithm;
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    SigningAlgorithm(
+            final String keyAlgorithm,
+            final SignatureAlgorithm signatureAlgorithm
+    ){
+        this.keyAlgorithm = keyAlgorithm;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mxnuchim.auth.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free event counter over a sliding time window, approximated by a ring of fixed-size
+ * buckets. Each slot packs the bucket's epoch and its count into one long, so a stale slot is
+ * reset and incremented by the same compare-and-set and readers never see a torn bucket.
+ */
+public final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final long bucketMillis;
+
+    public SlidingWindowCounter(final Duration window, final int buckets) {
+        this.slots = new AtomicLongArray(buckets);
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+    }
+
+    /**
+     * Records one event and returns the number of events in the window, including this one.
+     */
+    public long increment(final long nowMillis) {
+        final long epoch = nowMillis / this.bucketMillis;
+        final int index = (int) (epoch % this.slots.length());
+        long current;
+        long updated;
+        do {
+            current = this.slots.get(index);
+            if (current >>> COUNT_BITS != epoch) {
+                updated = (epoch << COUNT_BITS) | 1;
+            } else if ((current & COUNT_MASK) == COUNT_MASK) {
+                // saturated, far beyond any sensible threshold
+                break;
+            } else {
+                updated = current + 1;
+            }
+        } while (!this.slots.compareAndSet(index, current, updated));
+        return sum(nowMillis);
+    }
+
+    public long sum(final long nowMillis) {
+        final long epoch = nowMillis / this.bucketMillis;
+        final long oldest = epoch - this.slots.length() + 1;
+        long total = 0;
+        for (int i = 0; i < this.slots.length(); i++) {
+            final long slot = this.slots.get(i);
+            final long slotEpoch = slot >>> COUNT_BITS;
+            if (slotEpoch >= oldest && slotEpoch <= epoch) {
+                total += slot & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
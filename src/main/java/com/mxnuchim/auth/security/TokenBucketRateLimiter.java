@@ -0,0 +1,61 @@
+package com.mxnuchim.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by client, implemented with the generic cell rate algorithm: each bucket is
+ * a single {@link AtomicLong} holding the theoretical arrival time of the next request, which
+ * behaves exactly like a bucket of {@code capacity} tokens refilled evenly over {@code period}.
+ * Buckets live in a bounded map that drops idle keys; an idle bucket is full anyway, so
+ * evicting it changes nothing.
+ */
+public final class TokenBucketRateLimiter {
+
+    private final int capacity;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(final int capacity, final Duration period, final long maxKeys) {
+        this.capacity = capacity;
+        this.emissionIntervalNanos = Math.max(1, period.toNanos() / capacity);
+        this.burstToleranceNanos = this.emissionIntervalNanos * capacity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .build();
+    }
+
+    public Decision tryAcquire(final String key) {
+        final AtomicLong arrival = this.buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        final long now = System.nanoTime();
+        while (true) {
+            final long current = arrival.get();
+            final long theoretical = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            final long next = theoretical + this.emissionIntervalNanos;
+            final long allowAt = next - this.burstToleranceNanos;
+            if (allowAt - now > 0) {
+                return new Decision(false, this.capacity, 0, theoretical - now, allowAt - now);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                final int remaining = (int) ((now - allowAt) / this.emissionIntervalNanos);
+                return new Decision(true, this.capacity, remaining, next - now, 0);
+            }
+        }
+    }
+
+    public long estimatedSize() {
+        return this.buckets.estimatedSize();
+    }
+
+    /**
+     * @param resetNanos time until the bucket is full again
+     * @param retryAfterNanos time until the next request would be allowed, zero when allowed
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
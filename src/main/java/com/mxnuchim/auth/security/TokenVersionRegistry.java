@@ -0,0 +1,98 @@
+package com.mxnuchim.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mxnuchim.auth.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * In-memory view of each user's current token version. Tokens stamped with an older version
+ * were issued before a password change, deactivation or forced logout and are rejected.
+ * <p>
+ * Known users are answered from memory; a miss loads the single column once per user. Changes
+ * made on this instance are applied immediately and changes made elsewhere are picked up by
+ * polling for recently modified users. Inside a transaction a local change is applied after the commit.
+ */
+@Component
+@Slf4j
+public class TokenVersionRegistry {
+
+    // tolerates late commits and small clock differences between instances; re-applying is idempotent
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(5);
+
+    private final UserRepository userRepository;
+    // backed by a ConcurrentHashMap, so lookups for different users never contend
+    private final Cache<UUID, Integer> versions;
+
+    private volatile LocalDateTime lastRefresh = LocalDateTime.now();
+
+    public TokenVersionRegistry(
+            final UserRepository userRepository,
+            @Value("${app.security.token-versions.max-size:100000}")
+            final long maxSize,
+            @Value("${app.security.token-versions.ttl:PT30M}")
+            final Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isCurrent(final UUID userId, final int tokenVersion) {
+        // deleted users load as null, which Caffeine does not cache
+        final Integer current = this.versions.get(userId,
+                id -> this.userRepository.findTokenVersionById(id).orElse(null));
+        if (current == null) {
+            return false;
+        }
+        if (tokenVersion > current) {
+            // issued by an instance that saw a bump this one has not polled yet
+            raise(userId, tokenVersion);
+        }
+        return tokenVersion >= current;
+    }
+
+    public void advance(final UUID userId, final int tokenVersion) {
+        // advancing before the commit would reject every token of the user, even fresh ones, if it rolled back;
+        // the poll only ever raises versions and could not undo it before the ttl
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    raise(userId, tokenVersion);
+                }
+            });
+        } else {
+            raise(userId, tokenVersion);
+        }
+    }
+
+    private void raise(final UUID userId, final int tokenVersion) {
+        // versions only ever grow, so concurrent updates simply keep the highest
+        this.versions.asMap().merge(userId, tokenVersion, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.token-versions.refresh-interval:PT5S}")
+    public void refresh() {
+        final LocalDateTime since = this.lastRefresh.minus(POLL_OVERLAP);
+        this.lastRefresh = LocalDateTime.now();
+        // only users already resident are updated; anyone else is loaded on first use
+        this.userRepository.findTokenVersionsModifiedSince(since)
+                .forEach(user -> this.versions.asMap().computeIfPresent(user.getId(),
+                        (id, current) -> Math.max(current, user.getTokenVersion())));
+    }
+
+    public long estimatedSize() {
+        return this.versions.estimatedSize();
+    }
+}
@@ -0,0 +1,87 @@
+package com.mxnuchim.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for database-backed principals, keyed by the normalized email.
+ * Callers that mutate a user must {@link #evict(String)} it so stale credentials or
+ * account flags are never served. Inside a transaction the eviction waits for the commit.
+ * Evictions are local to this instance: other instances keep serving their copy until the ttl expires.
+ */
+@Component
+@Slf4j
+public class UserDetailsCache {
+
+    private final boolean enabled;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(
+            @Value("${app.security.user-cache.enabled:false}")
+            final boolean enabled,
+            @Value("${app.security.user-cache.max-size:10000}")
+            final long maxSize,
+            @Value("${app.security.user-cache.ttl:5m}")
+            final Duration ttl,
+            final MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // hit, miss, size, eviction and load metrics tagged cache=user-details
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "user-details");
+        log.info("User details cache enabled: {} (max-size={}, ttl={})", enabled, maxSize, ttl);
+    }
+
+    public UserDetails get(final String email, final Function<String, UserDetails> loader) {
+        if (!this.enabled) {
+            return loader.apply(email);
+        }
+        // lookup failures such as UsernameNotFoundException propagate and are not cached
+        return this.cache.get(normalize(email), loader);
+    }
+
+    public void evict(final String email) {
+        if (email == null) {
+            return;
+        }
+        final String key = normalize(email);
+        // evicting before the commit would let a concurrent load cache the row as it was before the change
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    UserDetailsCache.this.cache.invalidate(key);
+                }
+            });
+        } else {
+            this.cache.invalidate(key);
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public long estimatedSize() {
+        return this.cache.estimatedSize();
+    }
+
+    private static String normalize(final String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mxnuchim.auth.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface UserPrincipal {
+
+    UUID getId();
+
+    String getUsername();
+
+    Collection<? extends GrantedAuthority> getAuthorities();
+
+    int getTokenVersion();
+}
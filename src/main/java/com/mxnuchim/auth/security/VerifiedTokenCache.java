@@ -0,0 +1,99 @@
+package com.mxnuchim.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Caches the claims of tokens that already passed signature verification, keyed by the
+ * SHA-256 digest of the compact token, so repeated requests with the same bearer token
+ * skip the public-key operation. An entry never outlives the token's own expiration.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final Cache<String, Claims> cache;
+
+    public VerifiedTokenCache(
+            final JwtService jwtService,
+            @Value("${app.security.jwt.cache.enabled:false}")
+            final boolean enabled,
+            @Value("${app.security.jwt.cache.max-size:10000}")
+            final long maxSize,
+            @Value("${app.security.jwt.cache.ttl:5m}")
+            final Duration ttl,
+            final MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(ttl.toNanos()))
+                .recordStats()
+                .build();
+        // hit, miss, size and eviction metrics tagged cache=verified-tokens
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "verified-tokens");
+        log.info("Verified token cache enabled: {} (max-size={}, ttl={})", enabled, maxSize, ttl);
+    }
+
+    public Claims verify(final String token) {
+        if (!this.enabled) {
+            return this.jwtService.verifyToken(token);
+        }
+        // verification failures propagate out of get() and are never cached
+        return this.cache.get(digest(token), key -> this.jwtService.verifyToken(token));
+    }
+
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    private static String digest(final String token) {
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record TokenExpiry(long ttlNanos) implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(final String key, final Claims claims, final long currentTime) {
+            if (claims.getExpiration() == null) {
+                return this.ttlNanos;
+            }
+            final long untilExpiry = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(this.ttlNanos, Duration.ofMillis(untilExpiry).toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Claims claims, final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Claims claims, final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
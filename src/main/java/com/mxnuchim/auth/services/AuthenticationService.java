@@ -7,9 +7,11 @@ import com.mxnuchim.auth.dto.response.AuthenticationResponse;
 
 public interface AuthenticationService {
 
-    AuthenticationResponse login(LoginRequest request);
+    AuthenticationResponse login(LoginRequest request, String clientIp);
 
     void register(RegistrationRequest request);
 
     AuthenticationResponse refreshToken(RefreshRequest request);
+
+    void logout(RefreshRequest request, String accessToken);
 }
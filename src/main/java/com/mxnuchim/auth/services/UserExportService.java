@@ -0,0 +1,14 @@
+package com.mxnuchim.auth.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    void exportUsers(OutputStream output, Format format) throws IOException;
+
+    enum Format {
+        CSV,
+        NDJSON
+    }
+}
@@ -0,0 +1,22 @@
+package com.mxnuchim.auth.services;
+
+import com.mxnuchim.auth.dto.response.UserImportJobResponse;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface UserImportService {
+
+    // stores the upload and imports it in the background; getJob reports the progress.
+    // Fails with IMPORT_QUEUE_FULL while the configured number of jobs is already queued or running
+    UserImportJobResponse submit(InputStream input, Format format);
+
+    UserImportJobResponse getJob(UUID jobId);
+
+    enum Format {
+        // a header row naming the RegistrationRequest fields, then one user per line
+        CSV,
+        // one RegistrationRequest JSON object per line
+        NDJSON
+    }
+}
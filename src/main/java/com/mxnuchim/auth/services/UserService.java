@@ -2,11 +2,15 @@ package com.mxnuchim.auth.services;
 
 import com.mxnuchim.auth.dto.ChangePasswordDto;
 import com.mxnuchim.auth.dto.ProfileUpdateDto;
+import com.mxnuchim.auth.dto.response.UserProfileResponse;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.util.UUID;
 
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
+
+    UserProfileResponse getProfile(UUID userId);
 
     void updateProfileInfo(UUID userId, ProfileUpdateDto dto);
 
@@ -16,5 +20,7 @@ public interface UserService extends UserDetailsService {
 
     void reactivateAccount(UUID userId);
 
+    void logoutEverywhere(UUID userId);
+
     void deleteAccount(UUID userId);
 }
@@ -7,12 +7,22 @@ import com.mxnuchim.auth.dto.request.RefreshRequest;
 import com.mxnuchim.auth.dto.request.RegistrationRequest;
 import com.mxnuchim.auth.dto.response.AuthenticationResponse;
 import com.mxnuchim.auth.exceptions.BusinessException;
+import com.mxnuchim.auth.exceptions.DataIntegrityViolations;
 import com.mxnuchim.auth.exceptions.ErrorCode;
 import com.mxnuchim.auth.mappers.UserMapper;
 import com.mxnuchim.auth.repositories.RoleRepository;
 import com.mxnuchim.auth.repositories.UserRepository;
+import com.mxnuchim.auth.security.AccessTokenDenylist;
+import com.mxnuchim.auth.security.AuthUser;
 import com.mxnuchim.auth.security.JwtService;
+import com.mxnuchim.auth.security.LoginAttemptLimiter;
+import com.mxnuchim.auth.security.RefreshTokenStore;
+import com.mxnuchim.auth.security.UserDetailsCache;
+import com.mxnuchim.auth.security.UserPrincipal;
 import com.mxnuchim.auth.services.AuthenticationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -20,14 +30,23 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -39,19 +58,58 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private  final UserMapper userMapper;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final UserDetailsCache userDetailsCache;
+    private final MeterRegistry meterRegistry;
+    @Value("${app.security.login-throttling.lock-duration:PT15M}")
+    private Duration lockDuration;
 
     @Override
-    public AuthenticationResponse login(LoginRequest request) {
-        final Authentication auth = this.authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
-
-        final User user = (User) auth.getPrincipal();
-        final String token = this.jwtService.generateAccessToken(user.getUsername());
-        final String refreshToken = this.jwtService.generateRefreshToken(user.getUsername());
+    public AuthenticationResponse login(LoginRequest request, String clientIp) {
+        return measure("login", () -> doLogin(request, clientIp));
+    }
+
+    @Override
+    @Transactional
+    public void register(RegistrationRequest request) {
+        measure("register", () -> {
+            doRegister(request);
+            return null;
+        });
+    }
+
+    @Override
+    public AuthenticationResponse refreshToken(RefreshRequest request) {
+        return measure("refresh", () -> doRefreshToken(request));
+    }
+
+    private AuthenticationResponse doLogin(final LoginRequest request, final String clientIp) {
+        // rejects throttled accounts and IPs before the user is loaded or the password hashed
+        this.loginAttemptLimiter.checkAllowed(request.getEmail(), clientIp);
+
+        final Authentication auth;
+        try {
+            auth = this.authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (final BadCredentialsException e) {
+            if (this.loginAttemptLimiter.recordFailure(request.getEmail(), clientIp)) {
+                lockAccount(request.getEmail());
+            }
+            throw e;
+        }
+        this.loginAttemptLimiter.recordSuccess(request.getEmail());
+
+        final UserPrincipal user = (UserPrincipal) auth.getPrincipal();
+        final String token = this.jwtService.generateAccessToken(user);
+        // every login starts a new refresh-token family
+        final UUID refreshTokenId = this.refreshTokenStore.issue(user.getId(), UUID.randomUUID());
+        final String refreshToken = this.jwtService.generateRefreshToken(user, refreshTokenId);
         final String tokenType = "Bearer";
 
         return AuthenticationResponse.builder()
@@ -62,61 +120,145 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     }
 
-    @Override
-    @Transactional
-    public void register(RegistrationRequest request) {
-        checkUserEmail(request.getEmail());
-        checkPhoneNumber(request.getPhoneNumber());
+    private void doRegister(final RegistrationRequest request) {
         checkPasswords(request.getPassword(), request.getConfirmPassword());
-
-        final Role userRole = this.roleRepository.findByName("ROLE_USER")
-                .orElseThrow(() -> new EntityNotFoundException("User role does not exist"));
+        // one round trip for both checks; the unique constraints still catch concurrent registrations
+        checkUniqueness(request.getEmail(), request.getPhoneNumber());
 
         final List<Role> roles = new ArrayList<>();
-        roles.add(userRole);
+        roles.add(role("ROLE_USER"));
 
         final User user = this.userMapper.toUser(request);
         user.setRoles(roles);
         log.debug("Saving user {}", user);
-        this.userRepository.save(user);
-
-        final List<User> users = new ArrayList<>();
-        users.add(user);
-        userRole.setUsers(users);
-
-        this.roleRepository.save(userRole);
+        // the owning side (User.roles) writes the user_roles row
+        try {
+            this.userRepository.saveAndFlush(user);
+        } catch (final DataIntegrityViolationException e) {
+            throw DataIntegrityViolations.toBusinessException(e);
+        }
     }
 
-
-
-    @Override
-    public AuthenticationResponse refreshToken(RefreshRequest request) {
-        final String newAccessToken = this.jwtService.refreshAccessToken(request.getRefreshToken());
+    private AuthenticationResponse doRefreshToken(final RefreshRequest request) {
+        final Claims claims = this.jwtService.verifyRefreshToken(request.getRefreshToken());
+        // throws when the token is unknown or revoked, and revokes the whole family when it was already used
+        final RefreshTokenStore.TokenState consumed = this.refreshTokenStore.rotate(extractTokenId(claims));
+        // reload the user so the new access token carries current roles and disabled accounts cannot refresh
+        final AuthUser user = this.userRepository.findAuthUserByEmail(claims.getSubject())
+                .filter(AuthUser::isEnabled)
+                .orElseThrow(() -> new BusinessException(ErrorCode.ERR_USER_DISABLED));
+        // issued before a password change or forced logout
+        if (this.jwtService.extractTokenVersion(claims) < user.getTokenVersion()) {
+            this.refreshTokenStore.revokeFamily(consumed.familyId());
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        final String newAccessToken = this.jwtService.generateAccessToken(user);
+        final UUID newRefreshTokenId = this.refreshTokenStore.issue(user.getId(), consumed.familyId());
+        final String newRefreshToken = this.jwtService.generateRefreshToken(user, newRefreshTokenId);
         final String tokenType = "Bearer";
 
         return AuthenticationResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(request.getRefreshToken())
+                .refreshToken(newRefreshToken)
                 .tokenType(tokenType)
                 .build();
     }
 
-    private void checkUserEmail(final String email) {
-        final boolean emailExists = this.userRepository.existsByEmailIgnoreCase(email);
-        if(emailExists){
-            throw new BusinessException(ErrorCode.EMAIL_ALREADY_EXISTS);
+    @Override
+    public void logout(RefreshRequest request, String accessToken) {
+        final Claims claims = this.jwtService.verifyRefreshToken(request.getRefreshToken());
+        this.refreshTokenStore.revoke(extractTokenId(claims));
+
+        if (accessToken != null) {
+            revokeAccessToken(accessToken);
+        }
+    }
+
+    private void revokeAccessToken(final String accessToken) {
+        final Claims accessClaims;
+        try {
+            accessClaims = this.jwtService.verifyToken(accessToken);
+        } catch (final RuntimeException e) {
+            // expired or invalid tokens are already rejected by the filter
+            log.debug("Skipping revocation of an unusable access token at logout");
+            return;
+        }
+        if (accessClaims.getId() != null) {
+            this.accessTokenDenylist.revokeToken(accessClaims.getId(), accessClaims.getExpiration().toInstant());
+        }
+    }
+
+    /**
+     * Records the latency of an authentication operation in {@code auth.operations}, tagged with
+     * the outcome and the error code the client receives.
+     */
+    private <T> T measure(final String operation, final Supplier<T> action) {
+        final Timer.Sample sample = Timer.start(this.meterRegistry);
+        String errorCode = "NONE";
+        try {
+            return action.get();
+        } catch (final RuntimeException e) {
+            errorCode = errorCodeOf(e).getCode();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("auth.operations")
+                    .tag("operation", operation)
+                    .tag("outcome", "NONE".equals(errorCode) ? "success" : "failure")
+                    .tag("error_code", errorCode)
+                    .register(this.meterRegistry));
+        }
+    }
+
+    // mirrors the mapping in ApplicationExceptionHandler
+    private static ErrorCode errorCodeOf(final RuntimeException e) {
+        if (e instanceof BusinessException businessException) {
+            return businessException.getErrorCode();
+        }
+        if (e instanceof BadCredentialsException) {
+            return ErrorCode.BAD_CREDENTIALS;
+        }
+        if (e instanceof LockedException) {
+            return ErrorCode.ERR_ACCOUNT_LOCKED;
+        }
+        if (e instanceof DisabledException) {
+            return ErrorCode.ERR_USER_DISABLED;
         }
+        return ErrorCode.INTERNAL_EXCEPTION;
+    }
 
+    private void lockAccount(final String email) {
+        // a single update, so unknown emails cost nothing and no entity has to be loaded
+        final int locked = this.userRepository.lockAccount(email, LocalDateTime.now().plus(this.lockDuration));
+        if (locked > 0) {
+            this.userDetailsCache.evict(email);
+            log.info("Locked account after repeated failed logins for {}", this.lockDuration);
+        }
     }
 
+    private UUID extractTokenId(final Claims claims) {
+        // refresh tokens issued before rotation was introduced carry no jti and must log in again
+        if (claims.getId() == null) {
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        return UUID.fromString(claims.getId());
+    }
 
-    private void checkPhoneNumber(final String phoneNumber) {
-        final boolean phoneExists = this.userRepository.existsByPhoneNumber(phoneNumber);
-        if(phoneExists){
+    private void checkUniqueness(final String email, final String phoneNumber) {
+        final UserRepository.UniquenessProbe probe = this.userRepository.probeUniqueness(email, phoneNumber);
+        if(probe.getEmailMatches() != null && probe.getEmailMatches() > 0){
+            throw new BusinessException(ErrorCode.EMAIL_ALREADY_EXISTS);
+        }
+        if(probe.getPhoneMatches() != null && probe.getPhoneMatches() > 0){
             throw new BusinessException(ErrorCode.PHONE_ALREADY_EXISTS);
         }
     }
 
+    private Role role(final String name) {
+        // served by the query and second-level caches after the first lookup, so it issues no query
+        return this.roleRepository.findByName(name)
+                .orElseThrow(() -> new EntityNotFoundException("User role does not exist"));
+    }
+
     private void checkPasswords(final String password, final String confirmPassword) {
         if(password == null || confirmPassword == null){
             throw new BusinessException(ErrorCode.MISSING_PASSWORDS);
@@ -0,0 +1,562 @@
+package com.mxnuchim.auth.services.impl;
+
+import com.mxnuchim.auth.domain.entities.Role;
+import com.mxnuchim.auth.domain.entities.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mxnuchim.auth.dto.request.RegistrationRequest;
+import com.mxnuchim.auth.dto.response.UserImportJobResponse;
+import com.mxnuchim.auth.dto.response.UserImportReport;
+import com.mxnuchim.auth.exceptions.BusinessException;
+import com.mxnuchim.auth.exceptions.DataIntegrityViolations;
+import com.mxnuchim.auth.exceptions.ErrorCode;
+import com.mxnuchim.auth.mappers.UserMapper;
+import com.mxnuchim.auth.repositories.RoleRepository;
+import com.mxnuchim.auth.repositories.UserRepository;
+import com.mxnuchim.auth.security.BoundedPasswordEncoder;
+import com.mxnuchim.auth.services.UserImportService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Imports users in batches. Each batch is validated against the {@link RegistrationRequest} constraints,
+ * checked for taken emails and phone numbers with one query, hashed in parallel and inserted with JDBC
+ * batching in its own transaction, so a failure never rolls back the batches before it.
+ * Uploads are stored in an owner-only file under the spool directory and imported by a background job,
+ * one job at a time; the jobs and their progress are kept in memory on the instance that accepted the upload.
+ * At most {@code max-pending-jobs} uploads are spooled at once, further submissions are refused.
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+    private static final List<String> CSV_REQUIRED_COLUMNS = List.of("firstName", "lastName", "email", "phoneNumber", "password");
+    private static final String SPOOL_PREFIX = "user-import-";
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final UserMapper userMapper;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder hashingEncoder;
+    private final ExecutorService hashingExecutor;
+    private final ExecutorService jobExecutor;
+    private final Cache<UUID, Job> jobs;
+    // one permit per queued or running job, released once its spool file is deleted
+    private final Semaphore pendingJobs;
+    private final Path spoolDirectory;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public UserImportServiceImpl(
+            final UserRepository userRepository,
+            final RoleRepository roleRepository,
+            final UserMapper userMapper,
+            final Validator validator,
+            final JsonMapper jsonMapper,
+            final TransactionTemplate transactionTemplate,
+            final PasswordEncoder passwordEncoder,
+            @Value("${app.user-import.batch-size:500}")
+            final int batchSize,
+            @Value("${app.user-import.hash-threads:0}")
+            final int hashThreads,
+            @Value("${app.user-import.max-reported-errors:1000}")
+            final int maxReportedErrors,
+            @Value("${app.user-import.job-retention:PT24H}")
+            final Duration jobRetention,
+            @Value("${app.user-import.max-pending-jobs:3}")
+            final int maxPendingJobs,
+            @Value("${app.user-import.spool-dir:${java.io.tmpdir}/user-import}")
+            final String spoolDirectory
+    ) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.userMapper = userMapper;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = transactionTemplate;
+        // imports hash on their own threads: going through the bounded login pool would either be rejected
+        // once its queue fills or make logins wait behind the import
+        this.hashingEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded
+                ? bounded.getDelegate()
+                : passwordEncoder;
+        final int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.hashingExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "user-import-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "user-import-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobRetention)
+                .build();
+        this.pendingJobs = new Semaphore(maxPendingJobs);
+        this.spoolDirectory = Path.of(spoolDirectory);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        prepareSpoolDirectory();
+    }
+
+    @Override
+    public UserImportJobResponse submit(final InputStream input, final Format format) {
+        // refused before the body is read, so a full queue never spools another file
+        if (!this.pendingJobs.tryAcquire()) {
+            throw new BusinessException(ErrorCode.IMPORT_QUEUE_FULL);
+        }
+        final Path upload;
+        try {
+            // the request body is gone once the 202 is sent, so the job reads its own copy
+            upload = spool(input, format);
+        } catch (final RuntimeException e) {
+            this.pendingJobs.release();
+            throw e;
+        }
+        final Job job = new Job(UUID.randomUUID(), format, new Progress(this.maxReportedErrors));
+        this.jobs.put(job.id, job);
+        this.jobExecutor.execute(() -> run(job, upload));
+        log.info("User import {} queued ({})", job.id, format);
+        return job.toResponse();
+    }
+
+    @Override
+    public UserImportJobResponse getJob(final UUID jobId) {
+        final Job job = this.jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new BusinessException(ErrorCode.IMPORT_JOB_NOT_FOUND);
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.jobExecutor.shutdown();
+        this.hashingExecutor.shutdown();
+    }
+
+    private void run(final Job job, final Path upload) {
+        job.start();
+        try (InputStream input = Files.newInputStream(upload)) {
+            importUsers(input, job.format, job.progress);
+            job.finish(null);
+        } catch (final BusinessException e) {
+            job.finish(e.getErrorCode());
+        } catch (final IOException | RuntimeException e) {
+            log.error("User import {} failed", job.id, e);
+            job.finish(ErrorCode.INTERNAL_EXCEPTION);
+        } finally {
+            delete(upload);
+            this.pendingJobs.release();
+        }
+    }
+
+    private void importUsers(final InputStream input, final Format format, final Progress progress) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            final Function<String, RegistrationRequest> parser;
+            if (format == Format.CSV) {
+                parser = csvParser(reader.readLine());
+                lineNumber++;
+            } else {
+                parser = line -> this.jsonMapper.readValue(line, RegistrationRequest.class);
+            }
+
+            final List<Row> batch = new ArrayList<>(this.batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.received();
+                final Row row = toRow(lineNumber, line, parser, progress);
+                if (row != null) {
+                    batch.add(row);
+                }
+                if (batch.size() == this.batchSize) {
+                    importBatch(batch, progress);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, progress);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to read the user import", e);
+        }
+
+        final UserImportReport report = progress.toReport();
+        log.info("User import finished: {} received, {} imported, {} failed", report.getReceived(), report.getImported(), report.getFailed());
+    }
+
+    // uploads carry plaintext passwords: a crash or kill leaves them behind, so they are removed on startup
+    private void prepareSpoolDirectory() {
+        try {
+            Files.createDirectories(this.spoolDirectory, ownerOnly("rwx------"));
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(this.spoolDirectory, SPOOL_PREFIX + "*")) {
+                for (final Path leftover : leftovers) {
+                    log.warn("Deleting the user import upload {} left by a previous run", leftover);
+                    delete(leftover);
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to prepare the user import spool directory " + this.spoolDirectory, e);
+        }
+    }
+
+    private Path spool(final InputStream input, final Format format) {
+        try {
+            final Path upload = Files.createTempFile(this.spoolDirectory, SPOOL_PREFIX,
+                    "." + format.name().toLowerCase(Locale.ROOT), ownerOnly("rw-------"));
+            try {
+                Files.copy(input, upload, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final IOException e) {
+                delete(upload);
+                throw e;
+            }
+            return upload;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to store the user import", e);
+        }
+    }
+
+    private static FileAttribute<?>[] ownerOnly(final String permissions) {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            // e.g. Windows, where a new file inherits the directory's ACL
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))};
+    }
+
+    private static void delete(final Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (final IOException e) {
+            log.warn("Failed to delete the user import upload {}", upload, e);
+        }
+    }
+
+    private Row toRow(final long lineNumber, final String line, final Function<String, RegistrationRequest> parser, final Progress progress) {
+        final RegistrationRequest request;
+        try {
+            request = parser.apply(line);
+        } catch (final RuntimeException e) {
+            progress.fail(lineNumber, null, ErrorCode.INVALID_IMPORT_ROW, List.of());
+            return null;
+        }
+        if (request == null) {
+            progress.fail(lineNumber, null, ErrorCode.INVALID_IMPORT_ROW, List.of());
+            return null;
+        }
+        // import files need not repeat the password
+        if (request.getConfirmPassword() == null || request.getConfirmPassword().isEmpty()) {
+            request.setConfirmPassword(request.getPassword());
+        }
+
+        final Set<ConstraintViolation<RegistrationRequest>> violations = this.validator.validate(request);
+        if (!violations.isEmpty()) {
+            progress.fail(lineNumber, request.getEmail(), ErrorCode.INVALID_IMPORT_ROW, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList());
+            return null;
+        }
+        if (!request.getPassword().equals(request.getConfirmPassword())) {
+            progress.fail(lineNumber, request.getEmail(), ErrorCode.PASSWORD_MISMATCH, List.of());
+            return null;
+        }
+        return new Row(lineNumber, request, request.getEmail().toLowerCase(Locale.ROOT));
+    }
+
+    private void importBatch(final List<Row> batch, final Progress progress) {
+        // rows repeating an email or phone number of an earlier row in the same batch
+        final Set<String> emails = new HashSet<>();
+        final Set<String> phoneNumbers = new HashSet<>();
+        final List<Row> distinct = new ArrayList<>(batch.size());
+        for (final Row row : batch) {
+            if (emails.contains(row.email())) {
+                progress.fail(row, ErrorCode.EMAIL_ALREADY_EXISTS);
+            } else if (phoneNumbers.contains(row.request().getPhoneNumber())) {
+                progress.fail(row, ErrorCode.PHONE_ALREADY_EXISTS);
+            } else {
+                emails.add(row.email());
+                phoneNumbers.add(row.request().getPhoneNumber());
+                distinct.add(row);
+            }
+        }
+
+        // one set-based query for the whole batch; the unique indexes still catch concurrent registrations
+        final Set<String> takenEmails = new HashSet<>();
+        final Set<String> takenPhoneNumbers = new HashSet<>();
+        this.userRepository.findIdentities(emails, phoneNumbers).forEach(identity -> {
+            takenEmails.add(identity.getEmail());
+            takenPhoneNumbers.add(identity.getPhoneNumber());
+        });
+        final List<Row> accepted = new ArrayList<>(distinct.size());
+        for (final Row row : distinct) {
+            if (takenEmails.contains(row.email())) {
+                progress.fail(row, ErrorCode.EMAIL_ALREADY_EXISTS);
+            } else if (takenPhoneNumbers.contains(row.request().getPhoneNumber())) {
+                progress.fail(row, ErrorCode.PHONE_ALREADY_EXISTS);
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        final Map<Row, String> encodedPasswords = hash(accepted);
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> insert(accepted, encodedPasswords));
+            progress.imported(accepted.size());
+        } catch (final DataIntegrityViolationException e) {
+            // something registered one of the identities since the check; find the offending rows one by one
+            log.debug("Batch insert hit a unique constraint, retrying {} row(s) individually", accepted.size());
+            for (final Row row : accepted) {
+                insertOne(row, encodedPasswords, progress);
+            }
+        }
+    }
+
+    private Map<Row, String> hash(final List<Row> rows) {
+        final List<CompletableFuture<String>> hashes = rows.stream()
+                .map(row -> CompletableFuture.supplyAsync(
+                        () -> this.hashingEncoder.encode(row.request().getPassword()),
+                        this.hashingExecutor))
+                .toList();
+        final Map<Row, String> encodedPasswords = new HashMap<>(rows.size() * 2);
+        for (int i = 0; i < rows.size(); i++) {
+            encodedPasswords.put(rows.get(i), hashes.get(i).join());
+        }
+        return encodedPasswords;
+    }
+
+    private void insert(final List<Row> rows, final Map<Row, String> encodedPasswords) {
+        final Role role = this.roleRepository.findByName(DEFAULT_ROLE)
+                .orElseThrow(() -> new EntityNotFoundException("User role does not exist"));
+        final List<User> users = new ArrayList<>(rows.size());
+        for (final Row row : rows) {
+            final User user = this.userMapper.toUser(row.request(), encodedPasswords.get(row));
+            user.setRoles(new ArrayList<>(List.of(role)));
+            users.add(user);
+        }
+        this.userRepository.saveAll(users);
+        this.userRepository.flush();
+    }
+
+    private void insertOne(final Row row, final Map<Row, String> encodedPasswords, final Progress progress) {
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> insert(List.of(row), encodedPasswords));
+            progress.imported(1);
+        } catch (final DataIntegrityViolationException e) {
+            if (!(DataIntegrityViolations.toBusinessException(e) instanceof BusinessException businessException)) {
+                throw e;
+            }
+            progress.fail(row, businessException.getErrorCode());
+        }
+    }
+
+    private static Function<String, RegistrationRequest> csvParser(final String headerLine) {
+        if (headerLine == null) {
+            throw new BusinessException(ErrorCode.INVALID_IMPORT_FILE);
+        }
+        final List<String> header = splitCsvLine(headerLine).stream().map(String::trim).toList();
+        if (!header.containsAll(CSV_REQUIRED_COLUMNS)) {
+            throw new BusinessException(ErrorCode.INVALID_IMPORT_FILE);
+        }
+        final int firstName = header.indexOf("firstName");
+        final int lastName = header.indexOf("lastName");
+        final int email = header.indexOf("email");
+        final int phoneNumber = header.indexOf("phoneNumber");
+        final int password = header.indexOf("password");
+        final int confirmPassword = header.indexOf("confirmPassword");
+
+        return line -> {
+            final List<String> fields = splitCsvLine(line);
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " fields but got " + fields.size());
+            }
+            return RegistrationRequest.builder()
+                    .firstName(fields.get(firstName))
+                    .lastName(fields.get(lastName))
+                    .email(fields.get(email))
+                    .phoneNumber(fields.get(phoneNumber))
+                    .password(fields.get(password))
+                    .confirmPassword(confirmPassword >= 0 ? fields.get(confirmPassword) : null)
+                    .build();
+        };
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and "" for a quote
+    static List<String> splitCsvLine(final String line) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // line numbers are unique, so rows can key the per-batch password map
+    private record Row(long line, RegistrationRequest request, String email) {
+    }
+
+    private static final class Job {
+
+        private final UUID id;
+        private final Format format;
+        private final Progress progress;
+        private final Instant submittedAt = Instant.now();
+        private volatile UserImportJobResponse.Status status = UserImportJobResponse.Status.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile ErrorCode errorCode;
+
+        private Job(final UUID id, final Format format, final Progress progress) {
+            this.id = id;
+            this.format = format;
+            this.progress = progress;
+        }
+
+        void start() {
+            this.startedAt = Instant.now();
+            this.status = UserImportJobResponse.Status.RUNNING;
+        }
+
+        void finish(final ErrorCode errorCode) {
+            this.errorCode = errorCode;
+            this.finishedAt = Instant.now();
+            this.status = errorCode == null ? UserImportJobResponse.Status.COMPLETED : UserImportJobResponse.Status.FAILED;
+        }
+
+        UserImportJobResponse toResponse() {
+            final ErrorCode failure = this.errorCode;
+            return UserImportJobResponse.builder()
+                    .id(this.id)
+                    .status(this.status)
+                    .format(this.format.name())
+                    .submittedAt(this.submittedAt)
+                    .startedAt(this.startedAt)
+                    .finishedAt(this.finishedAt)
+                    .errorCode(failure != null ? failure.getCode() : null)
+                    .report(this.progress.toReport())
+                    .build();
+        }
+    }
+
+    // updated by the job thread and read by status requests, hence synchronized
+    private static final class Progress {
+
+        private final int maxReportedErrors;
+        private final List<UserImportReport.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        private Progress(final int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        synchronized void received() {
+            this.received++;
+        }
+
+        synchronized void imported(final int rows) {
+            this.imported += rows;
+        }
+
+        synchronized void fail(final Row row, final ErrorCode errorCode) {
+            fail(row.line(), row.request().getEmail(), errorCode, List.of());
+        }
+
+        synchronized void fail(final long line, final String email, final ErrorCode errorCode, final List<String> messages) {
+            this.failed++;
+            if (this.errors.size() < this.maxReportedErrors) {
+                this.errors.add(UserImportReport.RowError.builder()
+                        .line(line)
+                        .email(email)
+                        .code(errorCode.getCode())
+                        .messages(messages)
+                        .build());
+            }
+        }
+
+        synchronized UserImportReport toReport() {
+            return UserImportReport.builder()
+                    .received(this.received)
+                    .imported(this.imported)
+                    .failed(this.failed)
+                    .errorsTruncated(this.failed > this.errors.size())
+                    .errors(List.copyOf(this.errors))
+                    .build();
+        }
+    }
+}
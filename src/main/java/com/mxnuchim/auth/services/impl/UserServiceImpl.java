@@ -2,11 +2,15 @@ package com.mxnuchim.auth.services.impl;
 
 import com.mxnuchim.auth.dto.ChangePasswordDto;
 import com.mxnuchim.auth.dto.ProfileUpdateDto;
+import com.mxnuchim.auth.dto.response.UserProfileResponse;
 import com.mxnuchim.auth.domain.entities.User;
 import com.mxnuchim.auth.exceptions.BusinessException;
 import com.mxnuchim.auth.exceptions.ErrorCode;
 import com.mxnuchim.auth.mappers.UserMapper;
 import com.mxnuchim.auth.repositories.UserRepository;
+import com.mxnuchim.auth.security.AuthUser;
+import com.mxnuchim.auth.security.TokenVersionRegistry;
+import com.mxnuchim.auth.security.UserDetailsCache;
 import com.mxnuchim.auth.services.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +18,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 
@@ -25,23 +30,55 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
+    // read-only transactions are served by the read replica when one is configured (see DataSourceConfig);
+    // read-modify-write methods run read-write so they never save over a stale replica read.
+    // The principal is read from the primary because it is cached: a lagging replica read just after an
+    // eviction would put the row as it was before the change back in the cache for the whole ttl.
     @Override
+    @Transactional
     public UserDetails loadUserByUsername(final String email) throws UsernameNotFoundException {
-        return this.userRepository.findByEmailIgnoreCase(email)
-                .orElseThrow(()-> new UsernameNotFoundException("User not found with email -->> " + email));
+        return this.userDetailsCache.get(email, key -> this.userRepository.findAuthUserByEmail(key)
+                .orElseThrow(()-> new UsernameNotFoundException("User not found with email -->> " + email)));
     }
 
     @Override
+    @Transactional
+    public UserDetails updatePassword(final UserDetails user, final String newPassword) {
+        // called by DaoAuthenticationProvider after a successful login when the stored hash is weaker than the current target
+        final User savedUser = this.userRepository.findByEmailIgnoreCase(user.getUsername())
+                .orElseThrow(()-> new UsernameNotFoundException("User not found with email -->> " + user.getUsername()));
+
+        savedUser.setPassword(newPassword);
+        this.userRepository.save(savedUser);
+        this.userDetailsCache.evict(savedUser.getEmail());
+        log.debug("Upgraded password hash for user {}", savedUser.getId());
+        return AuthUser.from(savedUser);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserProfileResponse getProfile(final UUID userId) {
+        return this.userRepository.findById(userId)
+                .map(this.userMapper::toProfile)
+                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+    }
+
+    @Override
+    @Transactional
     public void updateProfileInfo(UUID userId, ProfileUpdateDto dto) {
         final User savedUser = this.userRepository.findById(userId)
             .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
 
         this.userMapper.mergeUserInfo(savedUser, dto);
         this.userRepository.save(savedUser);
+        this.userDetailsCache.evict(savedUser.getEmail());
     };
 
     @Override
+    @Transactional
     public void changePassword(UUID userId, ChangePasswordDto dto) {
         if(!dto.getNewPassword().equals(dto.getConfirmNewPassword())){
             throw new BusinessException(ErrorCode.CHANGE_PASSWORDS_MISMATCH);
@@ -57,11 +94,14 @@ public class UserServiceImpl implements UserService {
         final String encodedPassword = this.passwordEncoder.encode(dto.getNewPassword());
 
         savedUser.setPassword(encodedPassword);
+        savedUser.bumpTokenVersion();
         this.userRepository.save(savedUser);
-
+        this.userDetailsCache.evict(savedUser.getEmail());
+        this.tokenVersionRegistry.advance(savedUser.getId(), savedUser.getTokenVersion());
     }
 
     @Override
+    @Transactional
     public void deactivateAccount(UUID userId) {
 
         final User user = this.userRepository.findById(userId)
@@ -72,10 +112,26 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setEnabled(false);
+        user.bumpTokenVersion();
+        this.userRepository.save(user);
+        this.userDetailsCache.evict(user.getEmail());
+        this.tokenVersionRegistry.advance(user.getId(), user.getTokenVersion());
+    }
+
+    @Override
+    @Transactional
+    public void logoutEverywhere(final UUID userId) {
+        final User user = this.userRepository.findById(userId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+
+        user.bumpTokenVersion();
         this.userRepository.save(user);
+        this.userDetailsCache.evict(user.getEmail());
+        this.tokenVersionRegistry.advance(user.getId(), user.getTokenVersion());
     }
 
     @Override
+    @Transactional
     public void reactivateAccount(UUID userId) {
         final User user = this.userRepository.findById(userId)
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
@@ -86,6 +142,7 @@ public class UserServiceImpl implements UserService {
 
         user.setEnabled(true);
         this.userRepository.save(user);
+        this.userDetailsCache.evict(user.getEmail());
     }
 
     @Override
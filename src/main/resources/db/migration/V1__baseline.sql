@@ -0,0 +1,49 @@
+-- The schema Hibernate's ddl-auto: update created for the original mappings, constraint names included.
+-- Existing databases are baselined at this version instead of running it; V2 onwards bring both up to date.
+
+CREATE TABLE users
+(
+    id                    UUID         NOT NULL,
+    first_name            VARCHAR(255) NOT NULL,
+    last_name             VARCHAR(255) NOT NULL,
+    email                 VARCHAR(255) NOT NULL,
+    phone_number          VARCHAR(255) NOT NULL,
+    password              VARCHAR(255) NOT NULL,
+    date_of_birth         DATE,
+    is_enabled            BOOLEAN      NOT NULL,
+    is_account_locked     BOOLEAN      NOT NULL,
+    is_credential_expired BOOLEAN      NOT NULL,
+    is_email_verified     BOOLEAN      NOT NULL,
+    profile_picture_url   VARCHAR(255),
+    is_phone_verified     BOOLEAN      NOT NULL,
+    created_date          TIMESTAMP(6) NOT NULL,
+    last_modified_date    TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+-- Hibernate's implicit names for @Column(unique = true) on email and phone_number
+ALTER TABLE users ADD CONSTRAINT uk6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email);
+ALTER TABLE users ADD CONSTRAINT uk9q63snka3mdh91as4io72espi UNIQUE (phone_number);
+
+CREATE INDEX idx_users_email ON users (email);
+CREATE INDEX idx_users_phone ON users (phone_number);
+
+CREATE TABLE roles
+(
+    id                 VARCHAR(255) NOT NULL,
+    created_date       TIMESTAMP(6) NOT NULL,
+    last_modified_date TIMESTAMP(6),
+    created_by         VARCHAR(255) NOT NULL,
+    last_modified_by   VARCHAR(255),
+    name               VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE user_roles
+(
+    users_id UUID         NOT NULL,
+    roles_id VARCHAR(255) NOT NULL
+);
+
+ALTER TABLE user_roles ADD CONSTRAINT fkdbv8tdyltxa1qjmfnj9oboxse FOREIGN KEY (roles_id) REFERENCES roles (id);
+ALTER TABLE user_roles ADD CONSTRAINT fkoovdgg7vvr1hb8vw6ivcrv3tb FOREIGN KEY (users_id) REFERENCES users (id);
@@ -0,0 +1,5 @@
+-- Per-user token version (JWT invalidation) and timed account locks.
+-- IF NOT EXISTS: databases that ran ddl-auto: update after these mappings already have the columns.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS lock_expires_at TIMESTAMP(6);
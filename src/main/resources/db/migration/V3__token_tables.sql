@@ -0,0 +1,26 @@
+-- Server-side refresh token families and the access token denylist.
+
+CREATE TABLE IF NOT EXISTS refresh_tokens
+(
+    jti        UUID                        NOT NULL,
+    family_id  UUID                        NOT NULL,
+    user_id    UUID                        NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    is_used    BOOLEAN                     NOT NULL DEFAULT FALSE,
+    is_revoked BOOLEAN                     NOT NULL DEFAULT FALSE,
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (jti)
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens
+(
+    revocation_key VARCHAR(255)                NOT NULL,
+    revoked_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_revoked_tokens PRIMARY KEY (revocation_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,38 @@
+-- Case-insensitive email uniqueness, named unique constraints and the indexes added since the baseline.
+
+-- Repository queries compare lower(email), which this index serves and the plain email index could not.
+-- Fails if two existing emails differ only in case; merge those accounts first.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_lower ON users (lower(email));
+DROP INDEX IF EXISTS idx_users_email;
+
+-- Duplicate phone numbers are reported by this name. Hibernate's implicit constraint names are looked up
+-- rather than spelled out, and a database that ran ddl-auto: update after the rename already has it.
+DO
+$$
+    DECLARE
+        implicit_name TEXT;
+    BEGIN
+        FOR implicit_name IN
+            SELECT c.conname
+            FROM pg_constraint c
+                     JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ALL (c.conkey)
+            WHERE c.conrelid = 'users'::regclass
+              AND c.contype = 'u'
+              AND cardinality(c.conkey) = 1
+              AND a.attname IN ('email', 'phone_number')
+              AND c.conname <> 'uk_users_phone_number'
+            LOOP
+                EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', implicit_name);
+            END LOOP;
+
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_users_phone_number') THEN
+            ALTER TABLE users ADD CONSTRAINT uk_users_phone_number UNIQUE (phone_number);
+        END IF;
+    END
+$$;
+
+-- incremental token version refresh
+CREATE INDEX IF NOT EXISTS idx_users_last_modified_date ON users (last_modified_date);
+
+CREATE INDEX IF NOT EXISTS idx_user_roles_users ON user_roles (users_id);
+CREATE INDEX IF NOT EXISTS idx_user_roles_roles ON user_roles (roles_id);
@@ -0,0 +1,7 @@
+-- Reference roles, formerly inserted by a CommandLineRunner on every startup.
+-- Guarded with NOT EXISTS because baselined databases already contain them.
+
+INSERT INTO roles (id, name, created_date, created_by)
+SELECT gen_random_uuid()::text, role_name, now(), 'APP'
+FROM (VALUES ('ROLE_USER'), ('ROLE_ADMIN')) AS seed (role_name)
+WHERE NOT EXISTS (SELECT 1 FROM roles r WHERE r.name = seed.role_name);
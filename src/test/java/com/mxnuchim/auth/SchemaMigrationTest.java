@@ -0,0 +1,91 @@
+package com.mxnuchim.auth;
+
+import com.mxnuchim.auth.domain.entities.User;
+import com.mxnuchim.auth.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database shaped like the ones Hibernate's ddl-auto: update created before Flyway, then boots
+ * against it with ddl-auto: validate: the context only starts if the migrated schema matches the mappings.
+ * Needs Docker; skipped when it is not available.
+ */
+@SpringBootTest(properties = "app.security.password-hashing.calibrate=false")
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // runs before the context starts, so Flyway finds a populated schema without a history table
+    @BeforeAll
+    static void createBaselineDatabase() {
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(dataSource);
+
+        final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("insert into roles (id, name, created_date, created_by) values ('r1', 'ROLE_USER', now(), 'APP')");
+        jdbc.update("""
+                insert into users (id, first_name, last_name, email, phone_number, password, is_enabled,
+                                   is_account_locked, is_credential_expired, is_email_verified, is_phone_verified,
+                                   created_date)
+                values ('0190a1b2-0000-7000-8000-000000000001', 'Ada', 'Lovelace', 'Ada@Mail.com', '+2348000000001',
+                        'x', true, false, false, true, false, now())
+                """);
+        jdbc.update("insert into user_roles (users_id, roles_id) values ('0190a1b2-0000-7000-8000-000000000001', 'r1')");
+    }
+
+    @Test
+    void baselinesTheExistingSchemaAndAppliesTheLaterVersions() {
+        final List<String> versions = this.jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success order by installed_rank", String.class);
+
+        assertThat(versions).containsExactly("1", "2", "3", "4", "5");
+        assertThat(this.jdbcTemplate.queryForObject(
+                "select type from flyway_schema_history where version = '1'", String.class)).isEqualTo("BASELINE");
+    }
+
+    @Test
+    void replacesTheImplicitConstraintsWithTheNamedOnes() {
+        final List<String> constraints = this.jdbcTemplate.queryForList(
+                "select conname from pg_constraint where conrelid = 'users'::regclass and contype = 'u'", String.class);
+        final List<String> indexes = this.jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where tablename = 'users'", String.class);
+
+        assertThat(constraints).containsExactly(User.PHONE_NUMBER_CONSTRAINT);
+        assertThat(indexes)
+                .contains(User.EMAIL_CONSTRAINT, "idx_users_phone", "idx_users_last_modified_date")
+                .doesNotContain("idx_users_email");
+    }
+
+    @Test
+    void keepsTheExistingRowsUsable() {
+        final User user = this.userRepository.findByEmailIgnoreCase("ada@mail.com").orElseThrow();
+
+        assertThat(user.getTokenVersion()).isZero();
+        assertThat(this.jdbcTemplate.queryForList("select name from roles order by name", String.class))
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+    }
+}
@@ -0,0 +1,80 @@
+package com.mxnuchim.auth.config;
+
+import com.mxnuchim.auth.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The replica is a second pool on the same H2 database, so the schema exists on both sides. Each pool tags its
+// connections with a session variable, which tells which pool served the transaction's own connection; pool-wide
+// counts would also see the connections scheduled jobs borrow meanwhile.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.connection-init-sql=SET @pool = 'primary'",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:routing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.connection-init-sql=SET @pool = 'replica'"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        final TransactionTemplate readOnly = new TransactionTemplate(this.transactionManager);
+        readOnly.setReadOnly(true);
+
+        final String pool = readOnly.execute(status -> {
+            this.userRepository.findByEmailIgnoreCase("nobody@example.com");
+            return servingPool();
+        });
+
+        assertThat(pool).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        final TransactionTemplate readWrite = new TransactionTemplate(this.transactionManager);
+
+        final String pool = readWrite.execute(status -> {
+            this.userRepository.findByEmailIgnoreCase("nobody@example.com");
+            return servingPool();
+        });
+
+        assertThat(pool).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyRepositoryCallsJoinAnEnclosingReadWriteTransaction() {
+        final TransactionTemplate readWrite = new TransactionTemplate(this.transactionManager);
+
+        // e.g. the principal load in UserServiceImpl, which must not read a lagging replica
+        final String pool = readWrite.execute(status -> {
+            this.userRepository.findAuthUserByEmail("nobody@example.com");
+            return servingPool();
+        });
+
+        assertThat(pool).isEqualTo("primary");
+    }
+
+    // runs on the connection bound to the current transaction
+    private String servingPool() {
+        return (String) this.entityManager.createNativeQuery("select @pool").getSingleResult();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mxnuchim.auth.repositories;
+
+import com.mxnuchim.auth.support.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the plans PostgreSQL picks for the email lookups on a table large enough that a
+ * sequential scan would be the alternative. Needs Docker; skipped when it is not available.
+ */
+@SpringBootTest(properties = {
+        "app.security.password-hashing.calibrate=false",
+        // captures the SQL Hibernate generates, so the plans are those of the real queries
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.mxnuchim.auth.support.StatementCounter"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class UserEmailIndexPlanTest {
+
+    private static final int ROWS = 3_000_000;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void emailLookupUsesTheExpressionIndex() {
+        populate();
+
+        final String email = "User2500000@Mail.com";
+        final String plan = explain(capture(() -> this.userRepository.findByEmailIgnoreCase(email)), email);
+
+        assertThat(plan).contains("uk_users_email_lower").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void registrationProbeUsesBothIndexes() {
+        populate();
+
+        final String email = "user42@mail.com";
+        final String phoneNumber = "+10000000042";
+        final String sql = capture(() -> this.userRepository.probeUniqueness(email, phoneNumber));
+
+        // the two conditional sums, then the where clause: the parameters follow the JPQL order
+        assertThat(sql.chars().filter(c -> c == '?').count()).isEqualTo(4);
+        final String plan = explain(sql, email, phoneNumber, email, phoneNumber);
+
+        assertThat(plan)
+                .contains("uk_users_email_lower")
+                .containsPattern("uk_users_phone_number|idx_users_phone")
+                .doesNotContain("Seq Scan");
+    }
+
+    private void populate() {
+        // the container is shared by both tests, so the rows are only inserted once
+        if (this.jdbcTemplate.queryForObject("select count(*) > 1000 from users", Boolean.class)) {
+            return;
+        }
+        this.jdbcTemplate.execute("""
+                insert into users (id, first_name, last_name, email, phone_number, password,
+                                   is_enabled, is_account_locked, is_credential_expired,
+                                   is_email_verified, is_phone_verified, token_version, created_date)
+                select gen_random_uuid(), 'First', 'Last', 'user' || g || '@mail.com', '+1' || lpad(g::text, 10, '0'),
+                       'x', true, false, false, false, false, 0, now()
+                from generate_series(1, %d) g
+                """.formatted(ROWS));
+        this.jdbcTemplate.execute("analyze users");
+    }
+
+    // the SQL Hibernate generates for the repository call
+    private static String capture(final Runnable repositoryCall) {
+        StatementCounter.reset();
+        repositoryCall.run();
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        return StatementCounter.lastStatement();
+    }
+
+    private String explain(final String sql, final Object... parameters) {
+        final List<String> lines = this.jdbcTemplate.queryForList("explain " + sql, String.class, parameters);
+        return String.join("\n", lines);
+    }
+}
@@ -0,0 +1,91 @@
+package com.mxnuchim.auth.security;
+
+import com.mxnuchim.auth.exceptions.BusinessException;
+import com.mxnuchim.auth.exceptions.ErrorCode;
+import com.mxnuchim.auth.repositories.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two stores over the same database stand in for two instances of the application, each with its own cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenStoreTest {
+
+    @Autowired
+    private RefreshTokenStore store;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private RefreshTokenStore otherInstance;
+
+    @BeforeEach
+    void createOtherInstance() {
+        this.otherInstance = new RefreshTokenStore(this.refreshTokenRepository, this.transactionTemplate, 60_000, 100);
+    }
+
+    @Test
+    void tokenIssuedOnOneInstanceRotatesOnAnother() {
+        final UUID userId = UUID.randomUUID();
+        final UUID familyId = UUID.randomUUID();
+        final UUID jti = this.store.issue(userId, familyId);
+
+        final RefreshTokenStore.TokenState consumed = this.otherInstance.rotate(jti);
+
+        assertThat(consumed.familyId()).isEqualTo(familyId);
+        assertThat(consumed.userId()).isEqualTo(userId);
+        assertThat(this.refreshTokenRepository.findById(jti).orElseThrow().isUsed()).isTrue();
+    }
+
+    @Test
+    void reuseOnAnyInstanceRevokesTheFamily() {
+        final UUID userId = UUID.randomUUID();
+        final UUID familyId = UUID.randomUUID();
+        final UUID first = this.store.issue(userId, familyId);
+        this.store.rotate(first);
+        final UUID second = this.store.issue(userId, familyId);
+
+        // the other instance never saw the rotation; the database tells it the token was used
+        assertThatThrownBy(() -> this.otherInstance.rotate(first))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.REFRESH_TOKEN_REUSED);
+        assertThatThrownBy(() -> this.store.rotate(second))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_REFRESH_TOKEN);
+    }
+
+    @Test
+    void revokedTokenIsRejectedEverywhere() {
+        final UUID userId = UUID.randomUUID();
+        final UUID familyId = UUID.randomUUID();
+        this.otherInstance.rotate(this.store.issue(userId, familyId));
+        final UUID next = this.otherInstance.issue(userId, familyId);
+
+        this.store.revoke(next);
+
+        assertThatThrownBy(() -> this.otherInstance.rotate(next))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_REFRESH_TOKEN);
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertThatThrownBy(() -> this.store.rotate(UUID.randomUUID()))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_REFRESH_TOKEN);
+    }
+}
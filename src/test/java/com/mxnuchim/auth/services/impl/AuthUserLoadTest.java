@@ -0,0 +1,79 @@
+package com.mxnuchim.auth.services.impl;
+
+import com.mxnuchim.auth.dto.request.RegistrationRequest;
+import com.mxnuchim.auth.repositories.RoleRepository;
+import com.mxnuchim.auth.repositories.UserRepository;
+import com.mxnuchim.auth.security.AuthUser;
+import com.mxnuchim.auth.services.AuthenticationService;
+import com.mxnuchim.auth.services.UserService;
+import com.mxnuchim.auth.support.StatementCounter;
+import com.mxnuchim.auth.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthUserLoadTest {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedRoles() {
+        TestUsers.seedRoles(this.roleRepository, "ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    void loadsThePrincipalWithOneStatement() {
+        final String email = register();
+        StatementCounter.reset();
+
+        // a cache miss: the email was never loaded before
+        final UserDetails user = this.userService.loadUserByUsername(email.toUpperCase());
+
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(user).isInstanceOf(AuthUser.class);
+        assertThat(user.getUsername()).isEqualTo(email);
+        assertThat(user.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void combinesTheRowsOfSeveralRoles() {
+        final String email = register();
+        this.transactionTemplate.executeWithoutResult(status -> this.userRepository.findByEmailIgnoreCase(email)
+                .orElseThrow()
+                .getRoles()
+                .add(this.roleRepository.findByName("ROLE_ADMIN").orElseThrow()));
+
+        final AuthUser user = this.userRepository.findAuthUserByEmail(email).orElseThrow();
+
+        assertThat(user.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    private String register() {
+        final RegistrationRequest request = TestUsers.registration();
+        this.authenticationService.register(request);
+        return request.getEmail();
+    }
+}
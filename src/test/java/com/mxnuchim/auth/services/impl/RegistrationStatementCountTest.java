@@ -0,0 +1,71 @@
+package com.mxnuchim.auth.services.impl;
+
+import com.mxnuchim.auth.exceptions.BusinessException;
+import com.mxnuchim.auth.exceptions.ErrorCode;
+import com.mxnuchim.auth.repositories.RoleRepository;
+import com.mxnuchim.auth.services.AuthenticationService;
+import com.mxnuchim.auth.support.StatementCounter;
+import com.mxnuchim.auth.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.mxnuchim.auth.support.TestUsers.nextEmail;
+import static com.mxnuchim.auth.support.TestUsers.nextPhoneNumber;
+import static com.mxnuchim.auth.support.TestUsers.registration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RegistrationStatementCountTest {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @BeforeEach
+    void warmUp() {
+        TestUsers.seedRoles(this.roleRepository, "ROLE_USER");
+        // the first registration also puts ROLE_USER into the query and second-level caches
+        this.authenticationService.register(registration());
+    }
+
+    @Test
+    void registerIssuesProbeAndInsertsOnly() {
+        StatementCounter.reset();
+
+        this.authenticationService.register(registration());
+
+        // uniqueness probe, users insert, user_roles insert
+        assertThat(StatementCounter.count()).isEqualTo(3);
+    }
+
+    @Test
+    void duplicateEmailIsRejectedByTheProbe() {
+        final String email = nextEmail();
+        this.authenticationService.register(registration(email, nextPhoneNumber()));
+        StatementCounter.reset();
+
+        assertThatThrownBy(() -> this.authenticationService.register(registration(email.toUpperCase(), nextPhoneNumber())))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.EMAIL_ALREADY_EXISTS);
+        assertThat(StatementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void duplicatePhoneNumberIsRejectedByTheProbe() {
+        final String phoneNumber = nextPhoneNumber();
+        this.authenticationService.register(registration(nextEmail(), phoneNumber));
+
+        assertThatThrownBy(() -> this.authenticationService.register(registration(nextEmail(), phoneNumber)))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.PHONE_ALREADY_EXISTS);
+    }
+}
@@ -0,0 +1,111 @@
+package com.mxnuchim.auth.services.impl;
+
+import com.mxnuchim.auth.domain.entities.User;
+import com.mxnuchim.auth.dto.response.UserExportRow;
+import com.mxnuchim.auth.repositories.RoleRepository;
+import com.mxnuchim.auth.repositories.UserRepository;
+import com.mxnuchim.auth.services.AuthenticationService;
+import com.mxnuchim.auth.services.UserExportService;
+import com.mxnuchim.auth.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserExportServiceTest {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private UserExportService pagedExport;
+
+    @BeforeEach
+    void setUp() {
+        TestUsers.seedRoles(this.roleRepository, "ROLE_USER");
+        for (int i = 0; i < 5; i++) {
+            this.authenticationService.register(TestUsers.registration());
+        }
+        // a tiny page size, so the export walks several keyset pages and a partial last one
+        this.pagedExport = new UserExportServiceImpl(this.userRepository, this.jsonMapper, 2);
+    }
+
+    @Test
+    void exportsEveryUserExactlyOnceAsNdjson() throws IOException {
+        final List<String> lines = export(UserExportService.Format.NDJSON);
+
+        final List<UUID> exportedIds = lines.stream()
+                .map(line -> this.jsonMapper.readValue(line, UserExportRow.class).id())
+                .toList();
+        assertThat(exportedIds)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(this.userRepository.findAll().stream().map(User::getId).toList());
+        assertThat(lines).noneMatch(line -> line.contains("password"));
+    }
+
+    @Test
+    void exportsCsvWithAHeaderRow() throws IOException {
+        final List<String> lines = export(UserExportService.Format.CSV);
+
+        assertThat(lines.getFirst()).startsWith("id,firstName,lastName,email");
+        assertThat(lines).hasSize((int) this.userRepository.count() + 1);
+    }
+
+    @Test
+    void holdsNoConnectionBetweenPages() throws IOException {
+        // open-in-view would bind an EntityManager, and with it a connection, to the thread writing the response
+        assertThat(this.applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+
+        // each flush hands a page to the client; nothing may be bound to the thread while it waits
+        final List<Boolean> boundOnFlush = new ArrayList<>();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                boundOnFlush.add(!TransactionSynchronizationManager.getResourceMap().isEmpty());
+            }
+        };
+        this.pagedExport.exportUsers(output, UserExportService.Format.NDJSON);
+
+        assertThat(boundOnFlush).hasSizeGreaterThan(1).containsOnly(false);
+    }
+
+    @Test
+    void quotesCsvFieldsTheImportCanRead() {
+        final String field = UserExportServiceImpl.csvField("a \"quoted\", value");
+
+        assertThat(UserImportServiceImpl.splitCsvLine(field)).containsExactly("a \"quoted\", value");
+    }
+
+    private List<String> export(final UserExportService.Format format) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        this.pagedExport.exportUsers(output, format);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,159 @@
+package com.mxnuchim.auth.services.impl;
+
+import com.mxnuchim.auth.dto.response.UserImportJobResponse;
+import com.mxnuchim.auth.dto.response.UserImportReport;
+import com.mxnuchim.auth.exceptions.ErrorCode;
+import com.mxnuchim.auth.repositories.RoleRepository;
+import com.mxnuchim.auth.repositories.UserRepository;
+import com.mxnuchim.auth.services.UserImportService;
+import com.mxnuchim.auth.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @BeforeEach
+    void seedRole() {
+        TestUsers.seedRoles(this.roleRepository, "ROLE_USER");
+    }
+
+    @Test
+    void importsValidCsvRowsAndReportsTheRest() {
+        final String csv = """
+                firstName,lastName,email,phoneNumber,password
+                Ada,Lovelace,import-ada@mail.com,+2349100000001,"pAss,word1!_"
+                Alan,Turing,not-an-email,+2349100000002,pAssword1!_
+                Grace,Hopper,IMPORT-ADA@mail.com,+2349100000003,pAssword1!_
+                Edsger,Dijkstra,import-edsger@mail.com,+2349100000004
+
+                Barbara,Liskov,import-barbara@mail.com,+2349100000005,pAssword1!_
+                Ada,Lovelace,import-ada@mail.com,+2349100000006,pAssword1!_
+                """;
+
+        final UserImportReport report = importUsers(csv, UserImportService.Format.CSV);
+
+        assertThat(report.getReceived()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(report.getErrors())
+                .extracting(UserImportReport.RowError::getLine, UserImportReport.RowError::getCode)
+                .containsExactlyInAnyOrder(
+                        tuple(3L, ErrorCode.INVALID_IMPORT_ROW.getCode()),
+                        // repeats line 2, case-insensitively
+                        tuple(4L, ErrorCode.EMAIL_ALREADY_EXISTS.getCode()),
+                        tuple(5L, ErrorCode.INVALID_IMPORT_ROW.getCode()),
+                        tuple(8L, ErrorCode.EMAIL_ALREADY_EXISTS.getCode()));
+        assertThat(this.userRepository.findAuthUserByEmail("import-ada@mail.com").orElseThrow().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void importsNdjson() {
+        final String ndjson = """
+                {"firstName":"Katherine","lastName":"Johnson","email":"import-katherine@mail.com","phoneNumber":"+2349200000001","password":"pAssword1!_"}
+                {"firstName":"Dorothy","lastName":"Vaughan","email":"import-dorothy@mail.com","phoneNumber":"+2349200000001","password":"pAssword1!_"}
+                {not json
+                """;
+
+        final UserImportReport report = importUsers(ndjson, UserImportService.Format.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors())
+                .extracting(UserImportReport.RowError::getLine, UserImportReport.RowError::getCode)
+                .containsExactlyInAnyOrder(
+                        tuple(2L, ErrorCode.PHONE_ALREADY_EXISTS.getCode()),
+                        tuple(3L, ErrorCode.INVALID_IMPORT_ROW.getCode()));
+    }
+
+    @Test
+    void rejectsIdentitiesTakenBeforeTheImport() {
+        final String ndjson = """
+                {"firstName":"Margaret","lastName":"Hamilton","email":"import-margaret@mail.com","phoneNumber":"+2349300000001","password":"pAssword1!_"}
+                """;
+        importUsers(ndjson, UserImportService.Format.NDJSON);
+
+        final UserImportReport report = importUsers(ndjson, UserImportService.Format.NDJSON);
+
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getErrors())
+                .extracting(UserImportReport.RowError::getCode)
+                .containsExactly(ErrorCode.EMAIL_ALREADY_EXISTS.getCode());
+    }
+
+    @Test
+    void runsSubmittedImportsInTheBackground() {
+        final String ndjson = """
+                {"firstName":"Mary","lastName":"Jackson","email":"import-mary@mail.com","phoneNumber":"+2349400000001","password":"pAssword1!_"}
+                {"firstName":"Mary","lastName":"Jackson","email":"import-mary@mail.com","phoneNumber":"+2349400000002","password":"pAssword1!_"}
+                """;
+
+        final UserImportJobResponse submitted = this.userImportService.submit(stream(ndjson), UserImportService.Format.NDJSON);
+        final UserImportJobResponse job = awaitFinished(submitted.getId());
+
+        assertThat(job.getStatus()).isEqualTo(UserImportJobResponse.Status.COMPLETED);
+        assertThat(job.getReport().getImported()).isEqualTo(1);
+        assertThat(job.getReport().getErrors())
+                .extracting(UserImportReport.RowError::getCode)
+                .containsExactly(ErrorCode.EMAIL_ALREADY_EXISTS.getCode());
+        assertThat(this.userRepository.existsByEmailIgnoreCase("import-mary@mail.com")).isTrue();
+    }
+
+    @Test
+    void failsTheJobWhenTheFileCannotBeRead() {
+        final UserImportJobResponse submitted = this.userImportService.submit(
+                stream("first,last\nAda,Lovelace\n"), UserImportService.Format.CSV);
+        final UserImportJobResponse job = awaitFinished(submitted.getId());
+
+        assertThat(job.getStatus()).isEqualTo(UserImportJobResponse.Status.FAILED);
+        assertThat(job.getErrorCode()).isEqualTo(ErrorCode.INVALID_IMPORT_FILE.getCode());
+    }
+
+    @Test
+    void splitsQuotedCsvFields() {
+        assertThat(UserImportServiceImpl.splitCsvLine("a,\"b,c\",\"d\"\"e\",,f"))
+                .containsExactly("a", "b,c", "d\"e", "", "f");
+    }
+
+    // the service only imports in the background, so the synchronous tests wait for their job
+    private UserImportReport importUsers(final String content, final UserImportService.Format format) {
+        final UserImportJobResponse job = awaitFinished(this.userImportService.submit(stream(content), format).getId());
+        assertThat(job.getStatus()).isEqualTo(UserImportJobResponse.Status.COMPLETED);
+        return job.getReport();
+    }
+
+    private UserImportJobResponse awaitFinished(final UUID jobId) {
+        return await().atMost(Duration.ofSeconds(30)).until(
+                () -> this.userImportService.getJob(jobId),
+                job -> job.getStatus() == UserImportJobResponse.Status.COMPLETED
+                        || job.getStatus() == UserImportJobResponse.Status.FAILED);
+    }
+
+    private static ByteArrayInputStream stream(final String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,33 @@
+package com.mxnuchim.auth.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, and keeps the last one,
+ * so background jobs running on other threads do not disturb the count.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+    private static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+    @Override
+    public String inspect(final String sql) {
+        COUNT.set(COUNT.get() + 1);
+        LAST.set(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+        LAST.remove();
+    }
+
+    public static int count() {
+        return COUNT.get();
+    }
+
+    public static String lastStatement() {
+        return LAST.get();
+    }
+}
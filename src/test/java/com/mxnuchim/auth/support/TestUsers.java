@@ -0,0 +1,53 @@
+package com.mxnuchim.auth.support;
+
+import com.mxnuchim.auth.domain.entities.Role;
+import com.mxnuchim.auth.dto.request.RegistrationRequest;
+import com.mxnuchim.auth.repositories.RoleRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixtures shared by the tests that register users against the H2 database. Test classes with the same
+ * configuration share a context and its database, so emails and phone numbers come from one sequence.
+ */
+public final class TestUsers {
+
+    private static final String PASSWORD = "pAssword1!_";
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private TestUsers() {
+    }
+
+    // seeded by the Flyway migrations in production, which do not run against H2
+    public static void seedRoles(final RoleRepository roleRepository, final String... names) {
+        for (final String name : names) {
+            if (roleRepository.findByName(name).isEmpty()) {
+                roleRepository.save(Role.builder().name(name).createdBy("TEST").build());
+            }
+        }
+    }
+
+    public static RegistrationRequest registration() {
+        return registration(nextEmail(), nextPhoneNumber());
+    }
+
+    public static RegistrationRequest registration(final String email, final String phoneNumber) {
+        return RegistrationRequest.builder()
+                .firstName("Manuchim")
+                .lastName("Oliver")
+                .email(email)
+                .phoneNumber(phoneNumber)
+                .password(PASSWORD)
+                .confirmPassword(PASSWORD)
+                .build();
+    }
+
+    public static String nextEmail() {
+        return "test-user" + SEQUENCE.incrementAndGet() + "@mail.com";
+    }
+
+    public static String nextPhoneNumber() {
+        return "+2348" + String.format("%09d", SEQUENCE.incrementAndGet());
+    }
+}